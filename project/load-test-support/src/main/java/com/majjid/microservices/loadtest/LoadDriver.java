@@ -0,0 +1,102 @@
+package com.majjid.microservices.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator : {@code concurrency} clients send requests back to back
+ * for a fixed duration and every latency is recorded (no sampling, no coordinated-omission correction).
+ */
+public final class LoadDriver {
+
+    public record Result(String name, long requests, long errors, double throughput, double p50Ms, double p99Ms, double p999Ms) {
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %8d req %6d err %10.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms",
+                    name, requests, errors, throughput, p50Ms, p99Ms, p999Ms);
+        }
+    }
+
+    private LoadDriver() {
+    }
+
+    /**
+     * @param request sends one request and returns its HTTP status, 2xx counts as a success
+     */
+    public static Result run(String name, int concurrency, Duration warmup, Duration duration, Callable<Integer> request) throws Exception {
+        drive(concurrency, warmup, request);
+
+        long start = System.nanoTime();
+        List<Recorder> recorders = drive(concurrency, duration, request);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long errors = recorders.stream().mapToLong(recorder -> recorder.errors).sum();
+        long[] latencies = recorders.stream()
+                .flatMapToLong(recorder -> Arrays.stream(recorder.latencies, 0, recorder.count))
+                .sorted()
+                .toArray();
+        return new Result(name, latencies.length, errors, latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+    }
+
+    private static List<Recorder> drive(int concurrency, Duration duration, Callable<Integer> request) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+        // virtual client threads so the driver never is the bottleneck
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    Recorder recorder = new Recorder();
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        int status;
+                        try {
+                            status = request.call();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        recorder.record(System.nanoTime() - begin, status >= 200 && status < 300);
+                    }
+                    return recorder;
+                }));
+            }
+        }
+
+        List<Recorder> recorders = new ArrayList<>(concurrency);
+        for (Future<Recorder> future : futures) {
+            recorders.add(future.get());
+        }
+        return recorders;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Recorder {
+        long[] latencies = new long[4096];
+        int count;
+        long errors;
+
+        void record(long nanos, boolean success) {
+            if (!success) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.majjid.microservices.loadtest;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Replays {@link TrafficProfile traffic profiles} against a running service, with the options of the load tests :
+ * {@code -Dloadtest.profiles=...} (comma separated) picks the profiles,
+ * {@code -Dloadtest.duration=PT2M} replaces their duration,
+ * {@code -Dloadtest.budget-scale=2} loosens every budget on a slower machine.
+ * Every run is appended to {@code target/load-results.ndjson}.
+ */
+public final class ProfileReplay {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder().executor(Runnable::run).build();
+    private static final Path RESULTS = Path.of("target", "load-results.ndjson");
+
+    private ProfileReplay() {
+    }
+
+    /**
+     * @param defaults the profiles replayed when {@code loadtest.profiles} is not set, comma separated
+     */
+    public static Stream<String> profiles(String defaults) {
+        return Stream.of(System.getProperty("loadtest.profiles", defaults).split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty());
+    }
+
+    /**
+     * @param seeds the values of the placeholders of the profile, created before the run
+     * @return the thresholds the run broke, empty when it is within its budget
+     */
+    public static List<String> replay(String profileName, String baseUrl, Map<String, List<String>> seeds) throws Exception {
+        TrafficProfile profile = TrafficProfile.load(profileName);
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", profile.duration().toString()));
+        TrafficProfile.Budget budget = profile.budget().scaled(Double.parseDouble(System.getProperty("loadtest.budget-scale", "1")));
+
+        LoadDriver.Result result = LoadDriver.run(profile.name(), profile.concurrency(), profile.warmup(), duration,
+                profile.sender(CLIENT, baseUrl, seeds));
+        System.out.println(result);
+        List<String> breaches = budget.breaches(result);
+        record(result, budget, breaches);
+        return breaches;
+    }
+
+    private static void record(LoadDriver.Result result, TrafficProfile.Budget budget, List<String> breaches) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("result", result);
+        line.put("budget", budget);
+        line.put("breaches", breaches);
+        Files.createDirectories(RESULTS.getParent());
+        Files.writeString(RESULTS, JsonMapper.builder().build().writeValueAsString(line) + "\n", CREATE, APPEND);
+    }
+}
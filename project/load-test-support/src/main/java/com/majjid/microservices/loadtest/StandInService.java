@@ -0,0 +1,53 @@
+package com.majjid.microservices.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+/**
+ * A local stand-in of a service, to check {@link TrafficProfile traffic profiles} in every build without running it :
+ * answers 200 to every request and records it as {@code <method> <uri> <body>}.
+ */
+public final class StandInService implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+
+    private StandInService(HttpServer server) {
+        this.server = server;
+    }
+
+    public static StandInService start() throws IOException {
+        StandInService service = new StandInService(HttpServer.create(new InetSocketAddress("localhost", 0), 0));
+        service.server.createContext("/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            service.received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " " + body);
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        service.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        service.server.start();
+        return service;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the requests received so far, oldest first
+     */
+    public Queue<String> received() {
+        return received;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.majjid.microservices.loadtest;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A recorded traffic mix : weighted request templates, the load to replay them with and the latency budget
+ * the run has to stay within. Profiles are the JSON files a service keeps in {@code src/test/resources/load-profiles}.
+ * <p>
+ * Paths and bodies take placeholders, drawn again for every request : {@code {n}} is a random number,
+ * {@code {name}} a random value of the seed {@code name} (ids or skus created before the run).
+ * A body with {@code repeat > 1} is the body template repeated, each copy with its own values,
+ * joined by {@code separator} between {@code prefix} and {@code suffix} (a JSON array, NDJSON lines).
+ *
+ * @param concurrency clients sending requests back to back
+ */
+public record TrafficProfile(String name, String description, int concurrency, Duration warmup, Duration duration,
+                      Budget budget, List<RequestTemplate> requests) {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+
+    /**
+     * Regression thresholds of a run, in milliseconds and requests per second, 0 when not checked.
+     */
+    public record Budget(double p50Ms, double p99Ms, double p999Ms, double maxErrorRate, double minThroughput) {
+
+        /**
+         * @param factor above 1 on a slower machine : the latencies allowed grow, the throughput expected shrinks
+         */
+        public Budget scaled(double factor) {
+            return new Budget(p50Ms * factor, p99Ms * factor, p999Ms * factor, maxErrorRate, minThroughput / factor);
+        }
+
+        /**
+         * @return the thresholds the run broke, empty when it is within the budget
+         */
+        public List<String> breaches(LoadDriver.Result result) {
+            List<String> breaches = new ArrayList<>();
+            check(breaches, "p50", result.p50Ms(), p50Ms);
+            check(breaches, "p99", result.p99Ms(), p99Ms);
+            check(breaches, "p99.9", result.p999Ms(), p999Ms);
+            double errorRate = result.requests() == 0 ? 1 : (double) result.errors() / result.requests();
+            if (errorRate > maxErrorRate) {
+                breaches.add(String.format("error rate %.4f > %.4f", errorRate, maxErrorRate));
+            }
+            if (minThroughput > 0 && result.throughput() < minThroughput) {
+                breaches.add(String.format("throughput %.1f req/s < %.1f req/s", result.throughput(), minThroughput));
+            }
+            return breaches;
+        }
+
+        private static void check(List<String> breaches, String percentile, double actualMs, double budgetMs) {
+            if (budgetMs > 0 && actualMs > budgetMs) {
+                breaches.add(String.format("%s %.2f ms > %.2f ms", percentile, actualMs, budgetMs));
+            }
+        }
+    }
+
+    /**
+     * @param contentType of the body, JSON when not set
+     */
+    public record RequestTemplate(int weight, String method, String path, String contentType, String body, int repeat,
+                           String separator, String prefix, String suffix) {
+    }
+
+    public static TrafficProfile load(String name) throws IOException {
+        try (InputStream profile = TrafficProfile.class.getResourceAsStream("/load-profiles/" + name + ".json")) {
+            if (profile == null) {
+                throw new IllegalArgumentException("No load profile " + name + " in src/test/resources/load-profiles");
+            }
+            // a field left out (repeat, budget thresholds) reads as 0
+            return JsonMapper.builder()
+                    .disable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+                    .build()
+                    .readValue(profile, TrafficProfile.class);
+        }
+    }
+
+    /**
+     * @return sends one request of the mix, drawn by weight, and returns its HTTP status
+     */
+    public Callable<Integer> sender(HttpClient client, String baseUrl, Map<String, List<String>> seeds) {
+        int totalWeight = requests.stream().mapToInt(RequestTemplate::weight).sum();
+        return () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            RequestTemplate template = pick(random.nextInt(totalWeight));
+            HttpRequest.BodyPublisher body = template.body() == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(body(template, seeds, random));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + expand(template.path(), seeds, random)))
+                    .header("Content-Type", template.contentType() == null ? "application/json" : template.contentType())
+                    .method(template.method(), body)
+                    .build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        };
+    }
+
+    private RequestTemplate pick(int draw) {
+        for (RequestTemplate template : requests) {
+            draw -= template.weight();
+            if (draw < 0) {
+                return template;
+            }
+        }
+        throw new IllegalStateException("Empty mix in the load profile " + name);
+    }
+
+    private static String body(RequestTemplate template, Map<String, List<String>> seeds, ThreadLocalRandom random) {
+        if (template.repeat() <= 1) {
+            return expand(template.body(), seeds, random);
+        }
+        StringBuilder body = new StringBuilder(template.prefix() == null ? "" : template.prefix());
+        for (int i = 0; i < template.repeat(); i++) {
+            if (i > 0 && template.separator() != null) {
+                body.append(template.separator());
+            }
+            body.append(expand(template.body(), seeds, random));
+        }
+        return body.append(template.suffix() == null ? "" : template.suffix()).toString();
+    }
+
+    private static String expand(String template, Map<String, List<String>> seeds, ThreadLocalRandom random) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder expanded = new StringBuilder(template.length() + 16);
+        while (matcher.find()) {
+            String placeholder = matcher.group(1);
+            String value;
+            if (placeholder.equals("n")) {
+                value = Integer.toString(random.nextInt(1_000_000));
+            } else {
+                List<String> values = seeds.get(placeholder);
+                if (values == null) {
+                    throw new IllegalArgumentException("No seed for the placeholder {" + placeholder + "}");
+                }
+                value = values.get(random.nextInt(values.size()));
+            }
+            matcher.appendReplacement(expanded, Matcher.quoteReplacement(value));
+        }
+        return matcher.appendTail(expanded).toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.majjid.microservices.loadtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrafficProfileTest {
+
+    private StandInService service;
+
+    @BeforeEach
+    void startService() throws IOException {
+        service = StandInService.start();
+    }
+
+    @AfterEach
+    void stopService() {
+        service.close();
+    }
+
+    @Test
+    void repeatedBodiesAreJoinedWithFreshValues() throws Exception {
+        TrafficProfile profile = TrafficProfile.load("sample-batch");
+
+        profile.sender(HttpClient.newHttpClient(), service.baseUrl(), Map.of("sku", List.of("SKU-1"))).call();
+
+        String request = service.received().remove();
+        assertThat(request).startsWith("POST /items/batch [{").endsWith("}]");
+        assertThat(request.split("\"sku\": \"SKU-1\"")).hasSize(4);
+        assertThat(request).doesNotContain("{n}");
+    }
+
+    @Test
+    void aPlaceholderWithoutSeedFailsTheRequest() throws Exception {
+        TrafficProfile profile = TrafficProfile.load("sample-batch");
+
+        assertThatThrownBy(() -> profile.sender(HttpClient.newHttpClient(), service.baseUrl(), Map.of()).call())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{sku}");
+        assertThat(service.received()).isEmpty();
+    }
+
+    @Test
+    void anUnknownProfileIsReported() {
+        assertThatThrownBy(() -> TrafficProfile.load("does-not-exist"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does-not-exist");
+    }
+
+    @Test
+    void aRunOverItsBudgetReportsEveryBreach() {
+        TrafficProfile.Budget budget = new TrafficProfile.Budget(10, 100, 0, 0.01, 500);
+
+        assertThat(budget.breaches(new LoadDriver.Result("within", 1000, 0, 600, 5, 90, 400))).isEmpty();
+        assertThat(budget.breaches(new LoadDriver.Result("over", 1000, 20, 400, 12, 150, 400)))
+                .hasSize(4)
+                .anyMatch(breach -> breach.startsWith("p99 150.00 ms"))
+                .anyMatch(breach -> breach.startsWith("error rate"));
+        assertThat(budget.scaled(2).breaches(new LoadDriver.Result("slower machine", 1000, 0, 300, 15, 150, 400))).isEmpty();
+    }
+}
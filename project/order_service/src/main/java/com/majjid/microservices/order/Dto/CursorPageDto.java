@@ -0,0 +1,16 @@
+package com.majjid.microservices.order.Dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ * Pass {@code nextCursor} back as the cursor of the next request while {@code hasNext} is true.
+ */
+public record CursorPageDto<T, C>(
+        List<T> content,
+        C nextCursor,
+        boolean hasNext,
+        int size
+) {
+
+}
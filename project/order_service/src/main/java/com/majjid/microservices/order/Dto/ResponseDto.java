@@ -1,5 +1,7 @@
 package com.majjid.microservices.order.Dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import org.springframework.http.HttpStatus;
 
@@ -10,8 +12,10 @@ public class ResponseDto<T> {
     private HttpStatus status;
     private boolean success;
 
-    // Private constructor for builder
-    private ResponseDto(T data, String message, HttpStatus status, boolean success) {
+    // Private constructor for builder, also used by Jackson to read back a stored response
+    @JsonCreator
+    private ResponseDto(@JsonProperty("data") T data, @JsonProperty("message") String message,
+                        @JsonProperty("status") HttpStatus status, @JsonProperty("success") boolean success) {
         this.data = data;
         this.message = message;
         this.status = status;
@@ -38,6 +42,9 @@ public class ResponseDto<T> {
     public static <T> ResponseDto<T> created(T data, String objectName) {
         return new ResponseDto<>(data, "The " + objectName + " created with success", HttpStatus.CREATED, true);
     }
+    public static <T> ResponseDto<T> accepted(T data, String objectName) {
+        return new ResponseDto<>(data, "The " + objectName + " accepted, it will be saved shortly", HttpStatus.ACCEPTED, true);
+    }
     public static <T> ResponseDto<T> updated(T data, String objectName) {
         return new ResponseDto<>(data, "The " + objectName + " updated with success", HttpStatus.OK, true);
     }
@@ -0,0 +1,9 @@
+package com.majjid.microservices.order.Dto.inventory;
+
+public record InventoryResponseDto(
+        String skuCode,
+        Long quantity,
+        boolean tracked
+) {
+
+}
@@ -0,0 +1,12 @@
+package com.majjid.microservices.order.Dto.inventory;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record InventoryUpdateRequestDto(
+        @NotNull(message = "quantity is required")
+        @PositiveOrZero
+        Long quantity
+) {
+
+}
@@ -0,0 +1,16 @@
+package com.majjid.microservices.order.Dto.order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public record OrderAggregateResponseDto(
+        Long id,
+        String orderNumber,
+        Instant createdAt,
+        int lineCount,
+        BigDecimal total,
+        List<OrderResponseDto> lines
+) {
+
+}
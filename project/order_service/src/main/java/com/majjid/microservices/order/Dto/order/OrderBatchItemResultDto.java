@@ -0,0 +1,22 @@
+package com.majjid.microservices.order.Dto.order;
+
+import java.util.List;
+
+/**
+ * Outcome of one line item of a batch placement, {@code index} is its position in the request.
+ */
+public record OrderBatchItemResultDto(
+        int index,
+        boolean success,
+        OrderResponseDto order,
+        List<String> errors
+) {
+
+    public static OrderBatchItemResultDto accepted(int index, OrderResponseDto order) {
+        return new OrderBatchItemResultDto(index, true, order, List.of());
+    }
+
+    public static OrderBatchItemResultDto rejected(int index, List<String> errors) {
+        return new OrderBatchItemResultDto(index, false, null, errors);
+    }
+}
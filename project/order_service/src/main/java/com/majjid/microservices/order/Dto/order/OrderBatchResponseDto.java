@@ -0,0 +1,11 @@
+package com.majjid.microservices.order.Dto.order;
+
+import java.util.List;
+
+public record OrderBatchResponseDto(
+        int accepted,
+        int rejected,
+        List<OrderBatchItemResultDto> results
+) {
+
+}
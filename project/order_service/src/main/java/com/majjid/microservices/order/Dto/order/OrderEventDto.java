@@ -0,0 +1,21 @@
+package com.majjid.microservices.order.Dto.order;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.majjid.microservices.order.model.enums.OrderEventType;
+
+import java.time.Instant;
+
+/**
+ * An order event as handed to the sinks. {@code eventId} is increasing and stable across
+ * redeliveries, consumers use it to drop duplicates (delivery is at least once).
+ */
+public record OrderEventDto(
+        long eventId,
+        OrderEventType eventType,
+        Integer orderId,
+        @JsonRawValue
+        String payload,
+        Instant occurredAt
+) {
+
+}
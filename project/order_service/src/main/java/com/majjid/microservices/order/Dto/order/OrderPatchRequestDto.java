@@ -0,0 +1,18 @@
+package com.majjid.microservices.order.Dto.order;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * Partial update of an order : the fields that do not move stock. A new sku or quantity goes through PUT,
+ * it has to reserve the new units and release the old ones.
+ */
+public record OrderPatchRequestDto(
+        @NotNull(message = "price is required")
+        @Positive
+        BigDecimal price
+) {
+
+}
@@ -1,5 +1,7 @@
 package com.majjid.microservices.order.Dto.order;
 
+import com.majjid.microservices.order.model.enums.OrderStatus;
+
 import java.math.BigDecimal;
 
 public record OrderResponseDto(
@@ -7,7 +9,10 @@ public record OrderResponseDto(
         String orderNumber,
         String skuCode,
         BigDecimal price,
-        Integer quantity
+        Integer quantity,
+        OrderStatus orderStatus,
+        // optimistic lock version, changes with every write : the ETag of the order
+        Long version
 
 ){
 
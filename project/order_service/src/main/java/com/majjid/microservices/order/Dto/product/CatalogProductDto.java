@@ -0,0 +1,14 @@
+package com.majjid.microservices.order.Dto.product;
+
+import java.math.BigDecimal;
+
+/**
+ * The fields of a product-service product the order service relies on.
+ */
+public record CatalogProductDto(
+        String id,
+        String name,
+        BigDecimal price
+) {
+
+}
@@ -0,0 +1,14 @@
+package com.majjid.microservices.order.Dto.product;
+
+import java.util.List;
+
+/**
+ * The ResponseDto envelope of product-service {@code GET /products?ids=}.
+ */
+public record CatalogProductsResponseDto(
+        List<CatalogProductDto> data,
+        String message,
+        boolean success
+) {
+
+}
@@ -0,0 +1,62 @@
+package com.majjid.microservices.order.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal consecutive-failures circuit breaker.
+ * Closed : calls go through. Open : calls fail fast until {@code openDuration} elapsed,
+ * then a single trial call is let through and its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+    private volatile boolean open;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * @return false when the call must not be attempted
+     */
+    public boolean tryAcquire() {
+        if (!open) {
+            return true;
+        }
+        // half open : one trial call once the open period is over
+        return clock.getAsLong() - openedAt >= openNanos && trialInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        open = false;
+        trialInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || open) {
+            openedAt = clock.getAsLong();
+            open = true;
+        }
+        trialInFlight.set(false);
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+}
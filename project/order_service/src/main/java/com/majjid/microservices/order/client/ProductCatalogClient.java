@@ -0,0 +1,194 @@
+package com.majjid.microservices.order.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.majjid.microservices.order.Dto.product.CatalogProductDto;
+import com.majjid.microservices.order.Dto.product.CatalogProductsResponseDto;
+import com.majjid.microservices.order.config.CustomAppException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Product prices from product-service, fetched as cheaply as possible :
+ * <ul>
+ *     <li>a local TTL cache answers repeated lookups without any request,</li>
+ *     <li>concurrent lookups issued within {@code batchWindow} share {@code GET /products?ids=} requests
+ *     of at most {@code maxBatchSize} ids, sent in parallel,</li>
+ *     <li>a circuit breaker fails fast while product-service is unreachable (a 4xx answer is not a failure of it).</li>
+ * </ul>
+ * A product that does not exist is cached as an empty price like any other answer.
+ */
+@Component
+@Slf4j
+public class ProductCatalogClient {
+
+    private final RestClient restClient;
+    private final ProductCatalogProperties properties;
+    private final Cache<String, Optional<BigDecimal>> prices;
+    private final CircuitBreaker circuitBreaker;
+    private final ScheduledExecutorService batcher;
+    // the requests of a flush, off the batcher thread so it keeps cutting batches while they wait for product-service
+    private final ExecutorService fetchers;
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<Optional<BigDecimal>>> pending = new HashMap<>();
+
+    public ProductCatalogClient(RestClient.Builder restClientBuilder, ProductCatalogProperties properties) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(properties.timeout()).build());
+        requestFactory.setReadTimeout(properties.timeout());
+
+        this.restClient = restClientBuilder.baseUrl(properties.baseUrl()).requestFactory(requestFactory).build();
+        this.properties = properties;
+        this.prices = Caffeine.newBuilder()
+                .maximumSize(properties.cacheMaxSize())
+                .expireAfterWrite(properties.cacheTtl())
+                .build();
+        this.circuitBreaker = new CircuitBreaker(properties.failureThreshold(), properties.openDuration());
+        this.batcher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("product-catalog-batcher").daemon().factory());
+        this.fetchers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("product-catalog-fetcher-", 0).factory());
+    }
+
+    /**
+     * @return the catalog price, empty when the product does not exist
+     */
+    public Optional<BigDecimal> getPrice(String productId) {
+        return getPrices(List.of(productId)).get(productId);
+    }
+
+    /**
+     * @return one entry per requested id, empty when the product does not exist
+     * @throws CustomAppException SERVICE_UNAVAILABLE when product-service can not answer
+     */
+    public Map<String, Optional<BigDecimal>> getPrices(Collection<String> productIds) {
+        Map<String, Optional<BigDecimal>> result = new HashMap<>();
+        Map<String, CompletableFuture<Optional<BigDecimal>>> waiting = new HashMap<>();
+        for (String productId : productIds) {
+            Optional<BigDecimal> cached = prices.getIfPresent(productId);
+            if (cached != null) {
+                result.put(productId, cached);
+            } else if (!waiting.containsKey(productId)) {
+                waiting.put(productId, enqueue(productId));
+            }
+        }
+
+        try {
+            for (Map.Entry<String, CompletableFuture<Optional<BigDecimal>>> entry : waiting.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().get(properties.timeout().multipliedBy(2).toMillis(), TimeUnit.MILLISECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unavailable(e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw unavailable(e);
+        }
+        return result;
+    }
+
+    private CompletableFuture<Optional<BigDecimal>> enqueue(String productId) {
+        synchronized (lock) {
+            // a lookup already waiting for this id is shared
+            CompletableFuture<Optional<BigDecimal>> future = pending.get(productId);
+            if (future != null) {
+                return future;
+            }
+
+            future = new CompletableFuture<>();
+            pending.put(productId, future);
+            if (pending.size() == 1) {
+                batcher.schedule(this::flush, properties.batchWindow().toNanos(), TimeUnit.NANOSECONDS);
+            } else if (pending.size() >= properties.maxBatchSize()) {
+                batcher.execute(this::flush);
+            }
+            return future;
+        }
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<Optional<BigDecimal>>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        // lookups keep arriving while a request is in flight : what piled up is cut into requests
+        // product-service accepts (its max-page-size, a request line under the header limit)
+        List<String> productIds = new ArrayList<>(batch.keySet());
+        for (int from = 0; from < productIds.size(); from += properties.maxBatchSize()) {
+            List<String> chunk = productIds.subList(from, Math.min(from + properties.maxBatchSize(), productIds.size()));
+            fetchers.execute(() -> flushChunk(chunk, batch));
+        }
+    }
+
+    private void flushChunk(List<String> chunk, Map<String, CompletableFuture<Optional<BigDecimal>>> batch) {
+        if (!circuitBreaker.tryAcquire()) {
+            CustomAppException open = new CustomAppException(HttpStatus.SERVICE_UNAVAILABLE, "The product catalog is unavailable (circuit open)");
+            chunk.forEach(productId -> batch.get(productId).completeExceptionally(open));
+            return;
+        }
+
+        try {
+            Map<String, BigDecimal> found = fetch(chunk);
+            circuitBreaker.onSuccess();
+            for (String productId : chunk) {
+                Optional<BigDecimal> price = Optional.ofNullable(found.get(productId));
+                prices.put(productId, price);
+                batch.get(productId).complete(price);
+            }
+        } catch (HttpClientErrorException e) {
+            // product-service answered : the request was refused, it is not down
+            circuitBreaker.onSuccess();
+            log.warn("Product catalog refused the lookup of {} ids : {}", chunk.size(), e.getStatusCode());
+            chunk.forEach(productId -> batch.get(productId).completeExceptionally(e));
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            log.warn("Product catalog lookup of {} ids failed", chunk.size(), e);
+            chunk.forEach(productId -> batch.get(productId).completeExceptionally(e));
+        }
+    }
+
+    private Map<String, BigDecimal> fetch(List<String> productIds) {
+        CatalogProductsResponseDto response = restClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/products").queryParam("ids", String.join(",", productIds)).build())
+                // CBOR when product-service offers it, prices arrive as binary decimals
+                .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(CatalogProductsResponseDto.class);
+
+        Map<String, BigDecimal> found = new HashMap<>();
+        if (response != null && response.data() != null) {
+            for (CatalogProductDto product : response.data()) {
+                found.put(product.id(), product.price());
+            }
+        }
+        return found;
+    }
+
+    private static CustomAppException unavailable(Exception e) {
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        if (cause instanceof CustomAppException customAppException) {
+            return customAppException;
+        }
+        return new CustomAppException(HttpStatus.SERVICE_UNAVAILABLE, "The product catalog is unavailable");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        batcher.shutdownNow();
+        fetchers.shutdownNow();
+    }
+}
@@ -0,0 +1,30 @@
+package com.majjid.microservices.order.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param baseUrl          product-service root url
+ * @param batchWindow      how long a lookup waits for others to share its request
+ * @param maxBatchSize     ids per request, a full batch is sent without waiting for the window
+ * @param timeout          connect and read timeout of one request
+ * @param cacheTtl         how long a fetched price (or a missing product) is trusted
+ * @param cacheMaxSize     bound of the local price cache
+ * @param failureThreshold consecutive failures that open the circuit
+ * @param openDuration     how long an open circuit fails fast before a trial request
+ */
+@ConfigurationProperties(prefix = "orders.product-catalog")
+public record ProductCatalogProperties(
+        @DefaultValue("http://localhost:8080") String baseUrl,
+        @DefaultValue("5ms") Duration batchWindow,
+        @DefaultValue("100") int maxBatchSize,
+        @DefaultValue("500ms") Duration timeout,
+        @DefaultValue("30s") Duration cacheTtl,
+        @DefaultValue("10000") long cacheMaxSize,
+        @DefaultValue("5") int failureThreshold,
+        @DefaultValue("10s") Duration openDuration
+) {
+
+}
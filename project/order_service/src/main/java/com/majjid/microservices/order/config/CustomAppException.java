@@ -12,8 +12,10 @@ public class CustomAppException extends RuntimeException {
    public static String BuildAlreadyExistsMsg(Object objectId,String ObjectType){
        return "The "+ObjectType+" with id " + objectId + " already exists";
    }
+    // stackless : the status and message are the whole story, and filling a stack trace
+    // through the servlet/Spring frames costs more than the rest of a 404
     public CustomAppException(HttpStatus status, String message) {
-        super(message);
+        super(message, null, false, false);
         this.status = status;
 
     }
@@ -1,9 +1,12 @@
 package com.majjid.microservices.order.config;
 
+import com.majjid.microservices.commons.web.ErrorBodies;
 import jakarta.servlet.ServletException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -106,6 +109,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    // Concurrent update of the same row (@Version mismatch)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return buildError(HttpStatus.CONFLICT, "The " + ex.getPersistentClassName() + " was modified concurrently, reload it and retry");
+    }
+
     // Optional: handle all other uncaught exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
@@ -123,15 +132,9 @@ public class GlobalExceptionHandler {
     }
 
 
-    // 🔁 Utility method to build response
-    private ResponseEntity<Map<String, Object>> buildError(HttpStatus status, String message) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("message", message);
-        error.put("status", status.value());
-        error.put("cause", status.getReasonPhrase());
-        error.put("success",false);
-
-        return ResponseEntity.status(status).body(error);
+    // 🔁 Utility method to build response : the body comes from a pre-serialized template of the status
+    private ResponseEntity<byte[]> buildError(HttpStatus status, String message) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(ErrorBodies.of(status, message));
     }
 
 }
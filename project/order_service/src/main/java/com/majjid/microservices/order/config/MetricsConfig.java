@@ -0,0 +1,47 @@
+package com.majjid.microservices.order.config;
+
+import com.majjid.microservices.commons.metrics.LayerTiming;
+import com.majjid.microservices.order.mappers.CustomMapper;
+import com.majjid.microservices.order.service.idempotencyService.IIdempotencyService;
+import com.majjid.microservices.order.service.inventoryService.IInventoryService;
+import com.majjid.microservices.order.service.orderService.IOrderService;
+import com.majjid.microservices.order.service.outboxService.IOrderOutboxService;
+import com.majjid.microservices.order.service.writeBehindService.IOrderWriteBehindService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Hot path timers, next to the ones Spring Boot already publishes :
+ * <ul>
+ *     <li>{@code orders.service} : every method of the service interfaces,</li>
+ *     <li>{@code orders.mapper} : every MapStruct mapping,</li>
+ *     <li>{@code spring.data.repository.invocations} : every repository call (Spring Data),</li>
+ *     <li>{@code hikaricp.*} : connection pool usage, wait and acquire times,</li>
+ *     <li>{@code hibernate.*} : second-level and query cache hits and misses, statements (Hibernate statistics),</li>
+ *     <li>{@code http.server.requests} : the whole request, serialization included.</li>
+ * </ul>
+ * The timers are advisors applied by the proxy that already carries the transactions,
+ * outermost so a service timing includes the commit.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return LayerTiming.advisor("orders.service", meterRegistryProvider,
+                IOrderService.class, IInventoryService.class, IOrderOutboxService.class, IIdempotencyService.class,
+                IOrderWriteBehindService.class);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor mapperTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return LayerTiming.advisor("orders.mapper", meterRegistryProvider, CustomMapper.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.majjid.microservices.order.config;
+
+import com.majjid.microservices.order.datasource.ReadReplicaProperties;
+import com.majjid.microservices.order.datasource.ReadRoutingInterceptor;
+import com.majjid.microservices.order.datasource.ReadWriteRoutingDataSource;
+import com.majjid.microservices.order.datasource.ReplicaCacheModeJpaDialect;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Read / write split, on when {@code orders.read-replica.url} is set : Boot's {@code dataSource} becomes the primary
+ * of a {@link ReadWriteRoutingDataSource}, the replica pool copies its settings (hikari, driver properties)
+ * with the replica url and credentials. The transactions routed to the replica read the second-level and query caches
+ * without filling them ({@link ReplicaCacheModeJpaDialect}).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(name = "orders.read-replica.url")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final ReadRoutingInterceptor readRoutingInterceptor;
+
+    public ReadReplicaConfig(ReadReplicaProperties readReplicaProperties) {
+        this.readRoutingInterceptor = new ReadRoutingInterceptor(readReplicaProperties);
+    }
+
+    @Bean
+    static BeanPostProcessor readWriteRoutingPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // set before the factory bean initializes, it would take the vendor adapter's dialect otherwise
+                if (bean instanceof LocalContainerEntityManagerFactoryBean entityManagerFactoryBean) {
+                    entityManagerFactoryBean.setJpaDialect(new ReplicaCacheModeJpaDialect());
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource primary && "dataSource".equals(beanName)) {
+                    ReadReplicaProperties properties = Binder.get(environment)
+                            .bindOrCreate("orders.read-replica", ReadReplicaProperties.class);
+                    return new ReadWriteRoutingDataSource(primary, replica(primary, properties, meterRegistryProvider));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readRoutingInterceptor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(readRoutingInterceptor);
+    }
+
+    private static HikariDataSource replica(HikariDataSource primary, ReadReplicaProperties properties,
+                                            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        HikariDataSource replica = new HikariDataSource();
+        primary.copyStateTo(replica);
+        replica.setPoolName((primary.getPoolName() == null ? "order-service" : primary.getPoolName()) + "-replica");
+        replica.setJdbcUrl(properties.url());
+        if (properties.username() != null) {
+            replica.setUsername(properties.username());
+        }
+        if (properties.password() != null) {
+            replica.setPassword(properties.password());
+        }
+        if (properties.maximumPoolSize() != null) {
+            replica.setMaximumPoolSize(properties.maximumPoolSize());
+        }
+        replica.setReadOnly(true);
+        // hikaricp.* of the replica, Boot only binds the pool of the dataSource bean
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null && primary.getMetricsTrackerFactory() == null && primary.getMetricRegistry() == null) {
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        return replica;
+    }
+}
@@ -0,0 +1,10 @@
+package com.majjid.microservices.order.config;
+
+import com.majjid.microservices.order.service.writeBehindService.WriteBehindProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindConfig {
+}
@@ -0,0 +1,31 @@
+package com.majjid.microservices.order.controller;
+
+
+import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.Dto.inventory.InventoryResponseDto;
+import com.majjid.microservices.order.Dto.inventory.InventoryUpdateRequestDto;
+import com.majjid.microservices.order.service.inventoryService.IInventoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("inventory")
+public class InventoryController {
+    final private IInventoryService inventoryService;
+
+    @GetMapping("{skuCode}")
+    ResponseEntity<ResponseDto<InventoryResponseDto>> getInventory(@PathVariable String skuCode) {
+        ResponseDto<InventoryResponseDto> inventoryResponseDto = inventoryService.getInventory(skuCode);
+        return ResponseEntity.status(inventoryResponseDto.getStatus()).body(inventoryResponseDto);
+    }
+
+    @PutMapping("{skuCode}")
+    ResponseEntity<ResponseDto<InventoryResponseDto>> updateInventory(@PathVariable String skuCode,
+                                                                      @Valid @RequestBody InventoryUpdateRequestDto inventoryUpdateRequestDto) {
+        ResponseDto<InventoryResponseDto> inventoryResponseDto = inventoryService.updateInventory(skuCode, inventoryUpdateRequestDto);
+        return ResponseEntity.status(inventoryResponseDto.getStatus()).body(inventoryResponseDto);
+    }
+}
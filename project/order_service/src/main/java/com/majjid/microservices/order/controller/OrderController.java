@@ -1,51 +1,121 @@
 package com.majjid.microservices.order.controller;
 
 
+import com.majjid.microservices.order.Dto.CursorPageDto;
+import com.majjid.microservices.order.Dto.order.OrderAggregateResponseDto;
 import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.Dto.order.OrderBatchResponseDto;
 import com.majjid.microservices.order.Dto.order.OrderCreateRequestDto;
+import com.majjid.microservices.order.Dto.order.OrderPatchRequestDto;
 import com.majjid.microservices.order.Dto.order.OrderResponseDto;
 import com.majjid.microservices.order.Dto.order.OrderUpdateRequestDto;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import com.majjid.microservices.order.service.idempotencyService.IIdempotencyService;
+import com.majjid.microservices.order.service.idempotencyService.IdempotentResponse;
 import com.majjid.microservices.order.service.orderService.IOrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("orders")
 public class OrderController {
 final  private IOrderService orderService;
+final private IIdempotencyService idempotencyService;
+
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
 
     @GetMapping
-    ResponseEntity<ResponseDto<List<OrderResponseDto>>> getOrders() {
-        ResponseDto<List<OrderResponseDto>>  ordersResponseDto= orderService.getOrders();
+    ResponseEntity<ResponseDto<CursorPageDto<OrderResponseDto, Integer>>> getOrders(
+            @RequestParam(required = false) OrderStatus orderStatus,
+            @RequestParam(required = false) String skuCode,
+            @RequestParam(required = false) String orderNumber,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(required = false) Integer size) {
+        ResponseDto<CursorPageDto<OrderResponseDto, Integer>>  ordersResponseDto= orderService.getOrders(orderStatus, skuCode, orderNumber, afterId, size);
         return ResponseEntity.status(ordersResponseDto.getStatus()).body(ordersResponseDto);
 
     }
+
+    @GetMapping(value = "stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamOrders() {
+        StreamingResponseBody body = orderService::streamOrders;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    @GetMapping("by-number/{orderNumber}")
+    ResponseEntity<ResponseDto<OrderAggregateResponseDto>> getOrderByNumber(@PathVariable String orderNumber) {
+        ResponseDto<OrderAggregateResponseDto> orderAggregateResponseDto = orderService.getOrderByNumber(orderNumber);
+        return ResponseEntity.status(orderAggregateResponseDto.getStatus()).body(orderAggregateResponseDto);
+    }
+
 @GetMapping("{orderId}")
-ResponseEntity<ResponseDto<OrderResponseDto>> getOrderById(@PathVariable Integer orderId) {
+ResponseEntity<ResponseDto<OrderResponseDto>> getOrderById(@PathVariable Integer orderId, WebRequest webRequest) {
+
+    // a revalidation only reads the version, the order is neither loaded nor serialized when it did not change
+    if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+        Optional<String> eTag = orderService.getOrderETag(orderId);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return null;
+        }
+    }
 
     ResponseDto<OrderResponseDto>  orderResponseDto= orderService.getOrderById(orderId);
-    return ResponseEntity.status(orderResponseDto.getStatus()).body(orderResponseDto);
+    return ResponseEntity.status(orderResponseDto.getStatus()).eTag(orderService.toETag(orderResponseDto.getData())).body(orderResponseDto);
 
 }
 @PostMapping
-ResponseEntity<ResponseDto<OrderResponseDto>> placeAnOrder(@Valid @RequestBody OrderCreateRequestDto orderCreateRequestDto) {
-        ResponseDto<OrderResponseDto> orderResponseDto = orderService.placeAnOrder(orderCreateRequestDto);
-        return  ResponseEntity.status(orderResponseDto.getStatus()).body(orderResponseDto);
+ResponseEntity<ResponseDto<OrderResponseDto>> placeAnOrder(@Valid @RequestBody OrderCreateRequestDto orderCreateRequestDto,
+                                                           @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            ResponseDto<OrderResponseDto> orderResponseDto = orderService.placeAnOrder(orderCreateRequestDto);
+            return  ResponseEntity.status(orderResponseDto.getStatus()).body(orderResponseDto);
+        }
+
+        IdempotentResponse<OrderResponseDto> idempotentResponse = idempotencyService.execute(idempotencyKey, orderCreateRequestDto,
+                OrderResponseDto.class, () -> orderService.placeAnOrder(orderCreateRequestDto));
+        return ResponseEntity.status(idempotentResponse.response().getStatus())
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(idempotentResponse.replayed()))
+                .body(idempotentResponse.response());
 
 }
 
+    @PostMapping("batch")
+    ResponseEntity<ResponseDto<OrderBatchResponseDto>> placeOrders(@RequestBody List<OrderCreateRequestDto> orderCreateRequestDtos) {
+        ResponseDto<OrderBatchResponseDto> orderBatchResponseDto = orderService.placeOrders(orderCreateRequestDtos);
+        return ResponseEntity.status(orderBatchResponseDto.getStatus()).body(orderBatchResponseDto);
+    }
+
     @PutMapping("{orderId}")
-    ResponseEntity<ResponseDto<OrderResponseDto>> updateAnOrder(@Valid @PathVariable Integer orderId, OrderUpdateRequestDto orderUpdateRequestDto) {
+    ResponseEntity<ResponseDto<OrderResponseDto>> updateAnOrder(@PathVariable Integer orderId, @Valid @RequestBody OrderUpdateRequestDto orderUpdateRequestDto) {
         ResponseDto<OrderResponseDto> orderResponseDto = orderService.updateAnOrder(orderId, orderUpdateRequestDto);
 
         return ResponseEntity.status(orderResponseDto.getStatus()).body(orderResponseDto);
     }
 
+    @PatchMapping("{orderId}")
+    ResponseEntity<ResponseDto<OrderResponseDto>> patchAnOrder(@PathVariable Integer orderId, @Valid @RequestBody OrderPatchRequestDto orderPatchRequestDto) {
+        ResponseDto<OrderResponseDto> orderResponseDto = orderService.patchAnOrder(orderId, orderPatchRequestDto);
+
+        return ResponseEntity.status(orderResponseDto.getStatus()).body(orderResponseDto);
+    }
+
+    @PostMapping("{orderId}/cancel")
+    ResponseEntity<ResponseDto<OrderResponseDto>> cancelAnOrder(@PathVariable Integer orderId,
+                                                                @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        ResponseDto<OrderResponseDto> orderResponseDto = orderService.cancelAnOrder(orderId, idempotencyKey);
+
+        return ResponseEntity.status(orderResponseDto.getStatus()).body(orderResponseDto);
+    }
+
     @DeleteMapping("{orderId}")
     ResponseEntity<ResponseDto<OrderResponseDto>> deleteAnOrder(@PathVariable Integer orderId) {
         ResponseDto<OrderResponseDto> orderResponseDto = orderService.deleteAnOrder(orderId);
@@ -0,0 +1,28 @@
+package com.majjid.microservices.order.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param url                  jdbc url of the read replica, the routing is off when it is not set
+ * @param username             defaults to {@code spring.datasource.username}
+ * @param password             defaults to {@code spring.datasource.password}
+ * @param maximumPoolSize      defaults to the primary pool size
+ * @param readYourWritesWindow how long the reads of a client stay on the primary after its last write (the replica lag to cover)
+ * @param clientHeader         header naming the client, its address is used when the header is missing
+ * @param maxClients           clients remembered for the window at most
+ */
+@ConfigurationProperties(prefix = "orders.read-replica")
+public record ReadReplicaProperties(
+        String url,
+        String username,
+        String password,
+        Integer maximumPoolSize,
+        @DefaultValue("5s") Duration readYourWritesWindow,
+        @DefaultValue("X-Client-Id") String clientHeader,
+        @DefaultValue("100000") long maxClients
+) {
+
+}
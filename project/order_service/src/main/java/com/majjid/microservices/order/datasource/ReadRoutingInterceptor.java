@@ -0,0 +1,92 @@
+package com.majjid.microservices.order.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Decides which request threads may read from the replica : GET and HEAD requests of a client
+ * that did not write during the last {@code read-your-writes-window}. Any other request,
+ * and any thread outside a request (schedulers, flushers, relays), reads from the primary.
+ * <p>
+ * The writes are remembered in memory when they start and when they end, so a client reading while
+ * its write is in flight is on the primary too. Behind several instances a client has to come back
+ * to the one it wrote to for the window to apply.
+ */
+public final class ReadRoutingInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final Set<String> SAFE_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name());
+    private static final String REPLICA_ALLOWED_ATTRIBUTE = ReadRoutingInterceptor.class.getName() + ".REPLICA_ALLOWED";
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private final String clientHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadRoutingInterceptor(ReadReplicaProperties properties) {
+        this.clientHeader = properties.clientHeader();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.readYourWritesWindow())
+                .maximumSize(properties.maxClients())
+                .build();
+    }
+
+    static boolean replicaAllowed() {
+        return REPLICA_ALLOWED.get() == Boolean.TRUE;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = client(request);
+        boolean replicaAllowed;
+        if (SAFE_METHODS.contains(request.getMethod())) {
+            replicaAllowed = recentWriters.getIfPresent(client) == null;
+        } else {
+            recentWriters.put(client, Boolean.TRUE);
+            replicaAllowed = false;
+        }
+        request.setAttribute(REPLICA_ALLOWED_ATTRIBUTE, replicaAllowed);
+        REPLICA_ALLOWED.set(replicaAllowed);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        REPLICA_ALLOWED.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        REPLICA_ALLOWED.remove();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            // the window starts again once the write is committed
+            recentWriters.put(client(request), Boolean.TRUE);
+        }
+    }
+
+    // streaming bodies run on the async executor, they carry the decision of their request
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        REPLICA_ALLOWED.set(request.getAttribute(REPLICA_ALLOWED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == Boolean.TRUE);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        REPLICA_ALLOWED.remove();
+    }
+
+    private String client(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+}
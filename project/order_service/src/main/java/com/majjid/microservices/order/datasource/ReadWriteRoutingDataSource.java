@@ -0,0 +1,60 @@
+package com.majjid.microservices.order.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends the read only transactions of the threads {@link ReadRoutingInterceptor allowed to} to the read replica,
+ * everything else to the primary.
+ * <p>
+ * The connection is only taken on the first statement : when a transaction begins it is not marked read only yet,
+ * so a connection taken there would always be a primary one.
+ */
+@Slf4j
+public final class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    enum Route {PRIMARY, REPLICA}
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        Router router = new Router();
+        router.setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+    }
+
+    static Route currentRoute() {
+        return route(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    static Route route(boolean readOnly) {
+        return readOnly && ReadRoutingInterceptor.replicaAllowed() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    // the bean replaces Boot's pool, closing it closes both pools
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : new DataSource[]{replica, primary}) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return currentRoute();
+        }
+    }
+}
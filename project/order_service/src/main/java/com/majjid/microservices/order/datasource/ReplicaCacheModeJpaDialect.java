@@ -0,0 +1,34 @@
+package com.majjid.microservices.order.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps what a lagging replica returns out of the second-level and query caches : a transaction routed to the replica
+ * reads them ({@link CacheMode#GET}) but never puts into them. Only the primary fills the caches, so a write that
+ * invalidated an entry is not undone by a concurrent replica read putting the old row back, which every reader,
+ * the writer in its read-your-writes window included, would then be served until the entry expires.
+ * <p>
+ * The mode is set at every transaction begin, the session may be shared by the transactions of a request.
+ */
+public final class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        entityManager.unwrap(Session.class).setCacheMode(cacheMode(definition.isReadOnly()));
+        return transactionData;
+    }
+
+    /**
+     * @return the cache mode of a transaction starting on this thread, decided like its route
+     */
+    static CacheMode cacheMode(boolean readOnly) {
+        return ReadWriteRoutingDataSource.route(readOnly) == ReadWriteRoutingDataSource.Route.REPLICA ? CacheMode.GET : CacheMode.NORMAL;
+    }
+}
@@ -6,6 +6,8 @@ import com.majjid.microservices.order.Dto.order.OrderResponseDto;
 import com.majjid.microservices.order.Dto.order.OrderUpdateRequestDto;
 import com.majjid.microservices.order.model.Order;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 
 @Mapper(componentModel = "spring")
@@ -13,8 +15,22 @@ public interface OrderMapper {
 
    OrderResponseDto toDto(Order order);
 
+   @Mapping(target = "id", ignore = true)
+   @Mapping(target = "orderStatus", ignore = true)
+   @Mapping(target = "headerId", ignore = true)
+   @Mapping(target = "version", ignore = true)
+   @Mapping(target = "cancelKey", ignore = true)
    Order toObject(OrderCreateRequestDto productRequestDto);
 
-   Order toObject(OrderUpdateRequestDto productRequestDto);
+   /**
+    * Copies the updatable fields onto the loaded order, its id, status and version are kept.
+    */
+   @Mapping(target = "id", ignore = true)
+   @Mapping(target = "orderNumber", ignore = true)
+   @Mapping(target = "orderStatus", ignore = true)
+   @Mapping(target = "headerId", ignore = true)
+   @Mapping(target = "version", ignore = true)
+   @Mapping(target = "cancelKey", ignore = true)
+   void updateObject(OrderUpdateRequestDto orderUpdateRequestDto, @MappingTarget Order order);
 }
 
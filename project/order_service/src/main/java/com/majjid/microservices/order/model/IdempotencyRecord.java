@@ -0,0 +1,60 @@
+package com.majjid.microservices.order.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * The response given to the first request carrying an Idempotency-Key, replayed to its retries.
+ */
+@Entity
+@Table(name = "t_idempotency_key")
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 (hex) of the request body, a retry must send the same request.
+     */
+    private String requestHash;
+
+    /**
+     * The ResponseDto returned to the first request, as JSON.
+     */
+    private String responseBody;
+
+    private Instant createdAt;
+
+    // always inserted, never merged : a concurrent insert of the same key must fail, not overwrite
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord(String idempotencyKey, String requestHash, String responseBody, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.responseBody = responseBody;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.majjid.microservices.order.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(name = "t_inventory")
+@Data
+public class Inventory {
+
+    /**
+     * The SKU the stock is counted for, same value as {@link Order#getSkuCode()}.
+     */
+    @Id
+    private String skuCode;
+
+    /**
+     * Units still available for new orders. The live value lives in memory
+     * (see StockCounters) and is written back here asynchronously in batches.
+     */
+    private Long quantity;
+}
@@ -3,16 +3,40 @@ package com.majjid.microservices.order.model;
 import com.majjid.microservices.order.model.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
+/**
+ * Kept in the second-level cache (region {@value #CACHE_REGION}) : a lookup by id, including the one before
+ * an update or a delete, is served without a round trip. Updates and deletes through Hibernate refresh the entry,
+ * the targeted UPDATE of a PATCH evicts the order's entry (and Hibernate invalidates the region when it commits).
+ */
 @Entity
 @Table(name = "t_order")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Order.CACHE_REGION)
 @Data
 public class Order {
 
+    public static final String CACHE_REGION = "orders";
+
+    /**
+     * Ids come from a pooled table generator (one round trip per block of 50 ids)
+     * instead of IDENTITY, which would force Hibernate to insert rows one by one
+     * and disable JDBC batching.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+    @TableGenerator(
+            name = "order_id_generator",
+            table = "t_id_generator",
+            pkColumnName = "generator_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "t_order",
+            allocationSize = 50
+    )
     private Integer id;
 
     /**
@@ -22,6 +46,11 @@ public class Order {
      */
     private String orderNumber;
 
+    /**
+     * The {@link OrderHeader} this line item belongs to.
+     */
+    private Long headerId;
+
     /**
      * The Stock Keeping Unit (SKU) code, which is a unique identifier
      * for a specific product variation in the inventory.
@@ -38,4 +67,16 @@ public class Order {
 
     private BigDecimal price;
     private Integer quantity;
+
+    /**
+     * Optimistic lock : a concurrent update of the same order fails instead of being lost.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Idempotency key of the cancellation that moved the order to CANCELED,
+     * a retry with the same key gets the same answer instead of a conflict.
+     */
+    private String cancelKey;
 }
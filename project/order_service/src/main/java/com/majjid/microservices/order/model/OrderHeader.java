@@ -0,0 +1,40 @@
+package com.majjid.microservices.order.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One customer order : its number and its line items (the {@link Order} rows sharing the number).
+ */
+@Entity
+@Table(name = "t_order_header")
+@Data
+public class OrderHeader {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Unique, same value as {@link Order#getOrderNumber()} on every line.
+     */
+    private String orderNumber;
+
+    private Instant createdAt;
+
+    /**
+     * Read-only side : lines are linked through {@link Order#getHeaderId()}.
+     */
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "header_id", insertable = false, updatable = false)
+    @OrderBy("id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<Order> lines = new ArrayList<>();
+}
@@ -0,0 +1,42 @@
+package com.majjid.microservices.order.model;
+
+import com.majjid.microservices.order.model.enums.OrderEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * An order change waiting to be published, written in the same transaction as the change itself
+ * and removed by the outbox relay once the sink accepted it.
+ */
+@Entity
+@Table(name = "t_order_outbox")
+@Data
+public class OrderOutboxEvent {
+
+    // pooled like Order#id so a batch placement also batches its outbox rows
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_outbox_id_generator")
+    @TableGenerator(
+            name = "order_outbox_id_generator",
+            table = "t_id_generator",
+            pkColumnName = "generator_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "t_order_outbox",
+            allocationSize = 50
+    )
+    private Long id;
+
+    private Integer orderId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderEventType eventType;
+
+    /**
+     * The order as returned by the API (OrderResponseDto) at the time of the change, as JSON.
+     */
+    private String payload;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,8 @@
+package com.majjid.microservices.order.model.enums;
+
+public enum OrderEventType {
+    ORDER_PLACED,
+    ORDER_UPDATED,
+    ORDER_CANCELED,
+    ORDER_DELETED
+}
@@ -0,0 +1,27 @@
+package com.majjid.microservices.order.repository;
+
+import com.majjid.microservices.order.model.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Deletes at most {@code limit} records created before {@code cutoff}, small batches keep the locks short.
+     * The hint names the table it writes, without it Hibernate empties every second-level cache region after the statement.
+     */
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "t_idempotency_key"))
+    @Modifying
+    @Query(value = "DELETE FROM t_idempotency_key WHERE created_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
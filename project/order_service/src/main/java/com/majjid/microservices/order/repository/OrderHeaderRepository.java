@@ -0,0 +1,57 @@
+package com.majjid.microservices.order.repository;
+
+import com.majjid.microservices.order.model.OrderHeader;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface OrderHeaderRepository extends JpaRepository<OrderHeader, Long> {
+
+    /**
+     * The order and all its lines in a single query (fetch join).
+     */
+    @Query("select h from OrderHeader h left join fetch h.lines where h.orderNumber = :orderNumber")
+    Optional<OrderHeader> findWithLinesByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    List<OrderHeader> findByOrderNumberIn(Collection<String> orderNumbers);
+
+    /**
+     * Creates the header if it does not exist yet, safe against concurrent first lines of the same order.
+     * The hint names the table it writes, without it Hibernate empties every second-level cache region after the statement.
+     */
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "t_order_header"))
+    @Modifying
+    @Query(value = "INSERT INTO t_order_header (order_number, created_at) VALUES (:orderNumber, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE order_number = order_number", nativeQuery = true)
+    void insertIfAbsent(@Param("orderNumber") String orderNumber);
+
+    /**
+     * @return the header id of every order number, creating the headers that do not exist yet
+     */
+    default Map<String, Long> findOrCreateIds(List<String> orderNumbers) {
+        if (orderNumbers.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> headerIds = new HashMap<>(orderNumbers.size());
+        findByOrderNumberIn(orderNumbers).forEach(header -> headerIds.put(header.getOrderNumber(), header.getId()));
+        if (headerIds.size() < orderNumbers.size()) {
+            List<String> missing = orderNumbers.stream().filter(orderNumber -> !headerIds.containsKey(orderNumber)).toList();
+            missing.forEach(this::insertIfAbsent);
+            findByOrderNumberIn(missing).forEach(header -> headerIds.put(header.getOrderNumber(), header.getId()));
+        }
+        return headerIds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.majjid.microservices.order.repository;
+
+import com.majjid.microservices.order.model.OrderOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+}
@@ -1,10 +1,121 @@
 package com.majjid.microservices.order.repository;
 
 import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
+
+    /**
+     * Query cache region of the filtered lookups : it keeps the ids of a result (the orders come from their
+     * entity region) and is invalidated by any write to t_order made through Hibernate.
+     */
+    String QUERY_CACHE_REGION = "orders-query";
+
+    /**
+     * Keyset page : the orders whose id is strictly greater than the cursor, in id order.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Order> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    /**
+     * Keyset page of one status, served by {@code idx_order_status_id}.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Order> findByOrderStatusAndIdGreaterThanOrderByIdAsc(OrderStatus orderStatus, Integer afterId, Limit limit);
+
+    /**
+     * Keyset page of one sku, served by {@code idx_order_sku_code_id}.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Order> findBySkuCodeAndIdGreaterThanOrderByIdAsc(String skuCode, Integer afterId, Limit limit);
+
+    /**
+     * Keyset page of one sku and status, served by {@code idx_order_sku_code_status_id}.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Order> findBySkuCodeAndOrderStatusAndIdGreaterThanOrderByIdAsc(String skuCode, OrderStatus orderStatus, Integer afterId, Limit limit);
+
+    /**
+     * Keyset page of the lines of one order number, served by {@code idx_order_order_number_id}.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Order> findByOrderNumberAndIdGreaterThanOrderByIdAsc(String orderNumber, Integer afterId, Limit limit);
+
+    /**
+     * Fetch size that switches Connector/J to row streaming for one statement : rows are read off the socket
+     * as they are consumed instead of being buffered, without server side cursors on the whole pool.
+     */
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    /**
+     * Streams every order in id order, row by row ({@link #STREAMING_FETCH_SIZE}), must be consumed inside a
+     * transaction. The connection can run no other statement until the stream is closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o order by o.id asc")
+    Stream<Order> streamAllOrderedById();
+
+    /**
+     * The version alone, enough to answer a conditional GET without loading the order.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("select o.version from Order o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    /**
+     * The ids among {@code ids} that are already saved.
+     */
+    @Query("select o.id from Order o where o.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Sets the price in one versioned statement, without loading the order first.
+     *
+     * @return 1 when the order was updated, 0 when it does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.price = :price, o.version = o.version + 1 where o.id = :id")
+    int updatePrice(@Param("id") Integer id, @Param("price") BigDecimal price);
 }
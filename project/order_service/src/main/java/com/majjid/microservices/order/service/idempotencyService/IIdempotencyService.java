@@ -0,0 +1,21 @@
+package com.majjid.microservices.order.service.idempotencyService;
+
+import com.majjid.microservices.order.Dto.ResponseDto;
+
+import java.util.function.Supplier;
+
+public interface IIdempotencyService {
+
+    /**
+     * Runs {@code action} once per key : retries, concurrent or not, get the first response back.
+     *
+     * @param request  the request body, a retry must send the same one
+     * @param dataType type of the response data, to read back a stored response
+     */
+    <T> IdempotentResponse<T> execute(String idempotencyKey, Object request, Class<T> dataType, Supplier<ResponseDto<T>> action);
+
+    /**
+     * @return the number of stored responses older than the ttl that were deleted
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,181 @@
+package com.majjid.microservices.order.service.idempotencyService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.config.CustomAppException;
+import com.majjid.microservices.order.model.IdempotencyRecord;
+import com.majjid.microservices.order.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support.
+ * <ul>
+ *     <li>a bounded in-memory cache answers retries of recent keys without any database access,</li>
+ *     <li>concurrent requests with the same key wait for the one in flight instead of executing again,</li>
+ *     <li>the response is stored in t_idempotency_key in the same transaction as the action,
+ *     so a retry after a restart, or on another instance, is still answered from the first execution.</li>
+ * </ul>
+ * Failed executions are not remembered, their retries run again.
+ */
+@Service
+@Slf4j
+public class IdempotencyService implements IIdempotencyService {
+
+    // size of the t_idempotency_key.idempotency_key column
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, CompletableFuture<Snapshot>> snapshots;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    private record Snapshot(String requestHash, String responseBody) {
+    }
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${orders.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${orders.idempotency.max-cached-keys:100000}") long maxCachedKeys,
+                              @Value("${orders.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public <T> IdempotentResponse<T> execute(String idempotencyKey, Object request, Class<T> dataType, Supplier<ResponseDto<T>> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "The Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        CompletableFuture<Snapshot> inFlight = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = snapshots.asMap().putIfAbsent(idempotencyKey, inFlight);
+        if (existing != null) {
+            return replay(idempotencyKey, await(idempotencyKey, existing), requestHash, dataType);
+        }
+
+        Snapshot snapshot;
+        ResponseDto<T> response = null;
+        try {
+            // evicted from the cache, written before a restart or by another instance
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(idempotencyKey);
+            if (stored.isPresent()) {
+                snapshot = new Snapshot(stored.get().getRequestHash(), stored.get().getResponseBody());
+            } else {
+                try {
+                    response = transactionTemplate.execute(status -> {
+                        ResponseDto<T> actionResponse = action.get();
+                        // flushed here : a key taken by another instance fails before a write-behind order is journaled
+                        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(idempotencyKey, requestHash, toJson(actionResponse), Instant.now()));
+                        return actionResponse;
+                    });
+                    snapshot = new Snapshot(requestHash, toJson(response));
+                } catch (DataIntegrityViolationException e) {
+                    // another instance committed the same key first, its transaction won and ours rolled back
+                    IdempotencyRecord winner = idempotencyRecordRepository.findById(idempotencyKey).orElseThrow(() -> e);
+                    snapshot = new Snapshot(winner.getRequestHash(), winner.getResponseBody());
+                }
+            }
+        } catch (RuntimeException e) {
+            snapshots.asMap().remove(idempotencyKey, inFlight);
+            inFlight.completeExceptionally(e);
+            throw e;
+        }
+
+        inFlight.complete(snapshot);
+        if (response != null) {
+            return new IdempotentResponse<>(response, false);
+        }
+        return replay(idempotencyKey, snapshot, requestHash, dataType);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval-ms:60000}")
+    public int purgeExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(cutoff, PURGE_BATCH_SIZE));
+            purged += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    private <T> IdempotentResponse<T> replay(String idempotencyKey, Snapshot snapshot, String requestHash, Class<T> dataType) {
+        if (!snapshot.requestHash().equals(requestHash)) {
+            throw new CustomAppException(HttpStatus.UNPROCESSABLE_CONTENT,
+                    "The Idempotency-Key " + idempotencyKey + " was already used for a different request");
+        }
+        JavaType responseType = objectMapper.getTypeFactory().constructParametricType(ResponseDto.class, dataType);
+        return new IdempotentResponse<>(objectMapper.readValue(snapshot.responseBody(), responseType), true);
+    }
+
+    private Snapshot await(String idempotencyKey, CompletableFuture<Snapshot> inFlight) {
+        try {
+            return inFlight.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(idempotencyKey);
+        } catch (TimeoutException e) {
+            throw inProgress(idempotencyKey);
+        } catch (ExecutionException e) {
+            // the execution we waited for failed : answer the same
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static CustomAppException inProgress(String idempotencyKey) {
+        return new CustomAppException(HttpStatus.CONFLICT, "A request with the Idempotency-Key " + idempotencyKey + " is still in progress");
+    }
+
+    private String toJson(Object value) {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private String hash(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.majjid.microservices.order.service.idempotencyService;
+
+import com.majjid.microservices.order.Dto.ResponseDto;
+
+/**
+ * @param replayed true when the response was recorded for an earlier request with the same key
+ */
+public record IdempotentResponse<T>(ResponseDto<T> response, boolean replayed) {
+
+}
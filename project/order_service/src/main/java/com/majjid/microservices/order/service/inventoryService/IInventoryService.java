@@ -0,0 +1,16 @@
+package com.majjid.microservices.order.service.inventoryService;
+
+import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.Dto.inventory.InventoryResponseDto;
+import com.majjid.microservices.order.Dto.inventory.InventoryUpdateRequestDto;
+
+public interface IInventoryService {
+
+    ResponseDto<InventoryResponseDto> getInventory(String skuCode);
+    ResponseDto<InventoryResponseDto> updateInventory(String skuCode, InventoryUpdateRequestDto inventoryUpdateRequestDto);
+
+    boolean reserve(String skuCode, int quantity);
+    void release(String skuCode, int quantity);
+
+    void flush();
+}
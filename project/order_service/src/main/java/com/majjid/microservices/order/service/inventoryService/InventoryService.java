@@ -0,0 +1,116 @@
+package com.majjid.microservices.order.service.inventoryService;
+
+import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.Dto.inventory.InventoryResponseDto;
+import com.majjid.microservices.order.Dto.inventory.InventoryUpdateRequestDto;
+import com.majjid.microservices.order.model.Inventory;
+import com.majjid.microservices.order.repository.InventoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock reservations are served from {@link StockCounters} and written back to
+ * {@code t_inventory} by a scheduled batch, so concurrent orders on one SKU never
+ * contend on its row. This assumes a single order-service instance owns the counters.
+ * <p>
+ * A crash loses at most the changes of the last flush interval.
+ */
+@Service
+@Slf4j
+public class InventoryService implements IInventoryService {
+
+    private static final String UPDATE_STOCK_SQL = "UPDATE t_inventory SET quantity = ? WHERE sku_code = ?";
+    private static final String UPSERT_STOCK_SQL =
+            "INSERT INTO t_inventory (sku_code, quantity) VALUES (?, ?) ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockCounters stockCounters;
+
+    public InventoryService(InventoryRepository inventoryRepository, JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockCounters = new StockCounters(skuCode -> inventoryRepository.findById(skuCode).map(Inventory::getQuantity));
+    }
+
+    @Override
+    public ResponseDto<InventoryResponseDto> getInventory(String skuCode) {
+        Long quantity = stockCounters.available(skuCode).orElse(null);
+        return ResponseDto.retrieved(new InventoryResponseDto(skuCode, quantity, quantity != null), "inventory");
+    }
+
+    @Override
+    public ResponseDto<InventoryResponseDto> updateInventory(String skuCode, InventoryUpdateRequestDto inventoryUpdateRequestDto) {
+        long quantity = inventoryUpdateRequestDto.quantity();
+        // written through synchronously so a restock is never lost
+        jdbcTemplate.update(UPSERT_STOCK_SQL, skuCode, quantity);
+        stockCounters.set(skuCode, quantity);
+        log.info("Stock of {} set to {}", skuCode, quantity);
+        return ResponseDto.updated(new InventoryResponseDto(skuCode, quantity, true), "inventory");
+    }
+
+    /**
+     * Inside a transaction the reservation is given back automatically if it rolls back.
+     */
+    @Override
+    public boolean reserve(String skuCode, int quantity) {
+        if (!stockCounters.reserve(skuCode, quantity)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        stockCounters.release(skuCode, quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Inside a transaction the units are only given back once it commits.
+     */
+    @Override
+    public void release(String skuCode, int quantity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stockCounters.release(skuCode, quantity);
+                }
+            });
+            return;
+        }
+        stockCounters.release(skuCode, quantity);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:200}")
+    @PreDestroy
+    public void flush() {
+        Map<String, Long> changes = stockCounters.drainDirty();
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(changes.size());
+        changes.forEach((skuCode, quantity) -> batch.add(new Object[]{quantity, skuCode}));
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, batch);
+            log.debug("Flushed the stock of {} skus", changes.size());
+        } catch (RuntimeException e) {
+            stockCounters.markDirty(changes.keySet());
+            log.error("Failed to flush the stock of {} skus, will retry", changes.size(), e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.majjid.microservices.order.service.inventoryService;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory per-SKU stock counters.
+ * Reservations are lock-free compare-and-set decrements on one {@link AtomicLong} per SKU,
+ * so a hot SKU never waits on a database row lock. Every changed SKU is marked dirty
+ * and {@link #drainDirty()} hands the latest values to the asynchronous writer.
+ * <p>
+ * A SKU without an inventory row is "untracked" : it is remembered as such (no lookup per order)
+ * and reservations on it always succeed.
+ */
+public class StockCounters {
+
+    private static final AtomicLong UNTRACKED = new AtomicLong(-1);
+
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Function<String, Optional<Long>> loader;
+
+    /**
+     * @param loader reads the persisted stock of a SKU the first time it is used
+     */
+    public StockCounters(Function<String, Optional<Long>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Takes {@code quantity} units of the SKU if that many are available.
+     *
+     * @return false when the stock is insufficient, nothing is taken in that case
+     */
+    public boolean reserve(String skuCode, long quantity) {
+        AtomicLong counter = counter(skuCode);
+        if (counter == UNTRACKED) {
+            return true;
+        }
+
+        long available;
+        do {
+            available = counter.get();
+            if (available < quantity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(available, available - quantity));
+
+        dirty.add(skuCode);
+        return true;
+    }
+
+    /**
+     * Gives back units taken by {@link #reserve(String, long)}.
+     */
+    public void release(String skuCode, long quantity) {
+        AtomicLong counter = counter(skuCode);
+        if (counter == UNTRACKED) {
+            return;
+        }
+        counter.addAndGet(quantity);
+        dirty.add(skuCode);
+    }
+
+    /**
+     * Overwrites the stock of a SKU, which becomes tracked if it was not.
+     */
+    public void set(String skuCode, long quantity) {
+        counters.compute(skuCode, (sku, counter) -> {
+            if (counter == null || counter == UNTRACKED) {
+                return new AtomicLong(quantity);
+            }
+            counter.set(quantity);
+            return counter;
+        });
+        dirty.add(skuCode);
+    }
+
+    /**
+     * @return the available units, empty when the SKU is untracked
+     */
+    public Optional<Long> available(String skuCode) {
+        AtomicLong counter = counter(skuCode);
+        return counter == UNTRACKED ? Optional.empty() : Optional.of(counter.get());
+    }
+
+    /**
+     * Removes and returns the latest value of every SKU changed since the previous call.
+     * A SKU changed while draining is simply marked dirty again for the next call.
+     */
+    public Map<String, Long> drainDirty() {
+        Map<String, Long> snapshot = new HashMap<>();
+        for (String skuCode : dirty) {
+            // un-mark before reading so a concurrent change re-marks it instead of being lost
+            dirty.remove(skuCode);
+            AtomicLong counter = counters.get(skuCode);
+            if (counter != null && counter != UNTRACKED) {
+                snapshot.put(skuCode, counter.get());
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Marks SKUs dirty again, used when writing a drained snapshot failed.
+     */
+    public void markDirty(Collection<String> skuCodes) {
+        dirty.addAll(skuCodes);
+    }
+
+    private AtomicLong counter(String skuCode) {
+        AtomicLong counter = counters.get(skuCode);
+        if (counter != null) {
+            return counter;
+        }
+        // loaded outside the map : computeIfAbsent would hold the bin lock (and pin a virtual thread) during the query.
+        // Two first uses may both load, the first counter published wins and the other is dropped
+        AtomicLong loaded = loader.apply(skuCode).map(AtomicLong::new).orElse(UNTRACKED);
+        AtomicLong existing = counters.putIfAbsent(skuCode, loaded);
+        return existing != null ? existing : loaded;
+    }
+}
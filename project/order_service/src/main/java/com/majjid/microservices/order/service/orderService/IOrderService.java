@@ -1,23 +1,49 @@
 package com.majjid.microservices.order.service.orderService;
 
+import com.majjid.microservices.order.Dto.CursorPageDto;
+import com.majjid.microservices.order.Dto.order.OrderAggregateResponseDto;
+import com.majjid.microservices.order.Dto.order.OrderBatchResponseDto;
 import com.majjid.microservices.order.Dto.order.OrderCreateRequestDto;
+import com.majjid.microservices.order.Dto.order.OrderPatchRequestDto;
 import com.majjid.microservices.order.Dto.order.OrderResponseDto;
 import com.majjid.microservices.order.Dto.ResponseDto;
 import com.majjid.microservices.order.Dto.order.OrderUpdateRequestDto;
+import com.majjid.microservices.order.model.enums.OrderStatus;
 
 
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface IOrderService {
 
-    ResponseDto<List<OrderResponseDto>> getOrders();
+    ResponseDto<CursorPageDto<OrderResponseDto, Integer>> getOrders(OrderStatus orderStatus, String skuCode, String orderNumber, Integer afterId, Integer size);
+
+    void streamOrders(OutputStream outputStream);
+
     ResponseDto<OrderResponseDto> getOrderById(Integer orderId);
 
+    /**
+     * @return the current ETag of the order, empty when it does not exist
+     */
+    Optional<String> getOrderETag(Integer orderId);
+
+    String toETag(OrderResponseDto orderResponseDto);
+
+    ResponseDto<OrderAggregateResponseDto> getOrderByNumber(String orderNumber);
+
     ResponseDto<OrderResponseDto> placeAnOrder(OrderCreateRequestDto orderCreateRequestDto);
+    ResponseDto<OrderBatchResponseDto> placeOrders(List<OrderCreateRequestDto> orderCreateRequestDtos);
     ResponseDto<OrderResponseDto> updateAnOrder(Integer orderId, OrderUpdateRequestDto orderCreateRequestDto);
+
+    /**
+     * Changes the fields sent with a targeted, versioned UPDATE instead of loading and saving the whole order.
+     */
+    ResponseDto<OrderResponseDto> patchAnOrder(Integer orderId, OrderPatchRequestDto orderPatchRequestDto);
+
     ResponseDto<OrderResponseDto> deleteAnOrder(Integer orderId);
 
-    ResponseDto<OrderResponseDto>  cancelAnOrder(Integer orderId);
+    ResponseDto<OrderResponseDto>  cancelAnOrder(Integer orderId, String idempotencyKey);
 
 }
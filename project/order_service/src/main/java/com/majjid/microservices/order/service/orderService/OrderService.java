@@ -1,19 +1,54 @@
 package com.majjid.microservices.order.service.orderService;
 
+import com.majjid.microservices.order.Dto.CursorPageDto;
+import com.majjid.microservices.order.Dto.order.OrderAggregateResponseDto;
+import com.majjid.microservices.order.Dto.order.OrderBatchItemResultDto;
+import com.majjid.microservices.order.Dto.order.OrderBatchResponseDto;
 import com.majjid.microservices.order.Dto.order.OrderCreateRequestDto;
+import com.majjid.microservices.order.Dto.order.OrderPatchRequestDto;
 import com.majjid.microservices.order.Dto.order.OrderResponseDto;
 import com.majjid.microservices.order.Dto.ResponseDto;
 import com.majjid.microservices.order.Dto.order.OrderUpdateRequestDto;
+import com.majjid.microservices.order.client.ProductCatalogClient;
 import com.majjid.microservices.order.config.CustomAppException;
 import com.majjid.microservices.order.mappers.CustomMapper;
 import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.OrderHeader;
+import com.majjid.microservices.order.model.enums.OrderEventType;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import com.majjid.microservices.order.repository.OrderHeaderRepository;
 import com.majjid.microservices.order.repository.OrderRepository;
+import com.majjid.microservices.order.service.inventoryService.IInventoryService;
+import com.majjid.microservices.order.service.outboxService.IOrderOutboxService;
+import com.majjid.microservices.order.service.writeBehindService.IOrderWriteBehindService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,46 +56,323 @@ import java.util.List;
 public class OrderService implements IOrderService{
   private final CustomMapper mapper;
   private  final OrderRepository orderRepository;
+  private final OrderHeaderRepository orderHeaderRepository;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final IInventoryService inventoryService;
+  private final IOrderOutboxService orderOutboxService;
+  private final ProductCatalogClient productCatalogClient;
+  private final IOrderWriteBehindService orderWriteBehindService;
+  private final TransactionTemplate transactionTemplate;
+
+    // check the price of every new order against product-service (the skuCode is the catalog product id)
+    @Value("${orders.price-validation.enabled:false}")
+    private boolean priceValidationEnabled;
+
+    // accept the client price when product-service can not answer instead of refusing the order
+    @Value("${orders.price-validation.fail-open:false}")
+    private boolean priceValidationFailOpen;
+
+    @Value("${orders.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${orders.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${orders.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    // keep in sync with hibernate.jdbc.batch_size so each flush is one JDBC batch
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    // rows written to the stream between two flushes
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
+    // tries of a cancellation that keeps losing the optimistic lock race before answering 409
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    // size of the t_order.cancel_key column
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDto<CursorPageDto<OrderResponseDto, Integer>> getOrders(OrderStatus orderStatus, String skuCode, String orderNumber, Integer afterId, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        int cursor = afterId == null ? 0 : afterId;
+        if (orderNumber != null && (orderStatus != null || skuCode != null)) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "The orderNumber filter can not be combined with other filters");
+        }
+
+        // fetch one extra row to know if there is a next page without a count query
+        // each filter has its own (column, id) index so the page is an index range scan, never a sort
+        Limit limit = Limit.of(pageSize + 1);
+        List<Order> orders;
+        if (orderNumber != null) {
+            orders = orderRepository.findByOrderNumberAndIdGreaterThanOrderByIdAsc(orderNumber, cursor, limit);
+        } else if (skuCode != null && orderStatus != null) {
+            orders = orderRepository.findBySkuCodeAndOrderStatusAndIdGreaterThanOrderByIdAsc(skuCode, orderStatus, cursor, limit);
+        } else if (skuCode != null) {
+            orders = orderRepository.findBySkuCodeAndIdGreaterThanOrderByIdAsc(skuCode, cursor, limit);
+        } else if (orderStatus != null) {
+            orders = orderRepository.findByOrderStatusAndIdGreaterThanOrderByIdAsc(orderStatus, cursor, limit);
+        } else {
+            orders = orderRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit);
+        }
+        boolean hasNext = orders.size() > pageSize;
+        if (hasNext) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        List<OrderResponseDto> content = orders.stream().map(mapper::toDto).toList();
+        Integer nextCursor = hasNext ? orders.get(orders.size() - 1).getId() : null;
+        return ResponseDto.listed(new CursorPageDto<>(content, nextCursor, hasNext, content.size()), "orders");
+    }
+
     @Override
-    public ResponseDto<List<OrderResponseDto>> getOrders() {
-        return ResponseDto.listed(orderRepository.findAll().stream().map(mapper::toDto).toList(),"orders");
+    @Transactional(readOnly = true)
+    public void streamOrders(OutputStream outputStream) {
+        try (Stream<Order> orders = orderRepository.streamAllOrderedById()) {
+            int written = 0;
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                outputStream.write(objectMapper.writeValueAsBytes(mapper.toDto(order)));
+                outputStream.write('\n');
+                // keep the persistence context empty so memory stays flat whatever the table size
+                entityManager.detach(order);
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+            log.info("Streamed {} orders", written);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream the orders", e);
+        }
     }
 
     @Override
     public ResponseDto<OrderResponseDto> getOrderById(Integer orderId) {
-        Order  order = orderRepository.findById(orderId).orElseThrow( ()-> new CustomAppException(HttpStatus.NOT_FOUND,CustomAppException.buildNotFoundMsg(orderId,"order")));
+        // write-behind : an accepted order is queued until it is committed, so the queue is looked at first
+        // and a single SELECT is enough (a 404 costs one round trip)
+        Optional<Order> queued = orderWriteBehindService.isEnabled() ? orderWriteBehindService.findQueued(orderId) : Optional.empty();
+        Order  order = queued.or(() -> orderRepository.findById(orderId))
+                .orElseThrow( ()-> new CustomAppException(HttpStatus.NOT_FOUND,CustomAppException.buildNotFoundMsg(orderId,"order")));
         return ResponseDto.retrieved(mapper.toDto(order),"order");
     }
 
+    @Override
+    public Optional<String> getOrderETag(Integer orderId) {
+        return orderRepository.findVersionById(orderId).map(version -> toETag(orderId, version));
+    }
+
+    @Override
+    public String toETag(OrderResponseDto orderResponseDto) {
+        return toETag(orderResponseDto.id(), orderResponseDto.version());
+    }
+
+    // strong ETag : id and version identify one exact state of the order
+    private static String toETag(long orderId, Long version) {
+        return "\"" + orderId + "-" + version + "\"";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDto<OrderAggregateResponseDto> getOrderByNumber(String orderNumber) {
+        OrderHeader header = orderHeaderRepository.findWithLinesByOrderNumber(orderNumber)
+                .orElseThrow(() -> new CustomAppException(HttpStatus.NOT_FOUND, "The order with number " + orderNumber + " is not found"));
+
+        List<OrderResponseDto> lines = header.getLines().stream().map(mapper::toDto).toList();
+        BigDecimal total = header.getLines().stream()
+                .map(line -> line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return ResponseDto.retrieved(new OrderAggregateResponseDto(header.getId(), header.getOrderNumber(), header.getCreatedAt(), lines.size(), total, lines), "order");
+    }
+
     @Override
     public ResponseDto<OrderResponseDto> placeAnOrder(OrderCreateRequestDto orderCreateRequestDto) {
 
+        // checked before any transaction starts : the catalog call does not hold a database connection
+        if (priceValidationEnabled) {
+            String priceError = checkPrice(orderCreateRequestDto, catalogPrices(List.of(orderCreateRequestDto.skuCode())));
+            if (priceError != null) {
+                throw new CustomAppException(HttpStatus.UNPROCESSABLE_CONTENT, priceError);
+            }
+        }
+
+        if (orderWriteBehindService.isEnabled()) {
+            return acceptAnOrder(orderCreateRequestDto);
+        }
+        return transactionTemplate.execute(status -> saveAnOrder(orderCreateRequestDto));
+    }
+
+    private ResponseDto<OrderResponseDto> saveAnOrder(OrderCreateRequestDto orderCreateRequestDto) {
+        // the reservation is given back by the inventory if this transaction rolls back
+        if (!inventoryService.reserve(orderCreateRequestDto.skuCode(), orderCreateRequestDto.quantity())) {
+            throw new CustomAppException(HttpStatus.CONFLICT, buildOutOfStockMsg(orderCreateRequestDto.skuCode()));
+        }
+
         Order order = mapper.toObject(orderCreateRequestDto);
+        order.setOrderStatus(OrderStatus.UNDER_PROCESS);
+        order.setHeaderId(orderHeaderRepository.findOrCreateIds(List.of(order.getOrderNumber())).get(order.getOrderNumber()));
         order= orderRepository.save(order);
+        orderOutboxService.record(OrderEventType.ORDER_PLACED, order);
 
-//        ToDo : update the create order request to check the inventory (stock before creating a new order)
         return ResponseDto.created(mapper.toDto(order),"order");
+    }
 
+    // write-behind : answered once the order is journaled and queued (inside a transaction : once it commits), the flushers save it
+    private ResponseDto<OrderResponseDto> acceptAnOrder(OrderCreateRequestDto orderCreateRequestDto) {
+        if (!inventoryService.reserve(orderCreateRequestDto.skuCode(), orderCreateRequestDto.quantity())) {
+            throw new CustomAppException(HttpStatus.CONFLICT, buildOutOfStockMsg(orderCreateRequestDto.skuCode()));
+        }
+
+        Order order = mapper.toObject(orderCreateRequestDto);
+        order.setOrderStatus(OrderStatus.UNDER_PROCESS);
+        try {
+            order = orderWriteBehindService.enqueue(order);
+        } catch (RuntimeException e) {
+            // inside a transaction (Idempotency-Key) its rollback gives the reservation back and the order is never queued
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                inventoryService.release(orderCreateRequestDto.skuCode(), orderCreateRequestDto.quantity());
+            }
+            throw e;
+        }
+        return ResponseDto.accepted(mapper.toDto(order), "order");
     }
 
     @Override
+    public ResponseDto<OrderBatchResponseDto> placeOrders(List<OrderCreateRequestDto> orderCreateRequestDtos) {
+        if (orderCreateRequestDtos == null || orderCreateRequestDtos.isEmpty()) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "The batch must contain at least one order");
+        }
+        if (orderCreateRequestDtos.size() > maxBatchSize) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "The batch can not contain more than " + maxBatchSize + " orders");
+        }
+
+        // one catalog lookup for all the distinct skus of the batch, before any transaction starts :
+        // the catalog call does not hold a database connection
+        Map<String, Optional<BigDecimal>> prices = priceValidationEnabled
+                ? catalogPrices(orderCreateRequestDtos.stream().filter(Objects::nonNull).map(OrderCreateRequestDto::skuCode).filter(Objects::nonNull).distinct().toList())
+                : Map.of();
+
+        return transactionTemplate.execute(status -> saveOrders(orderCreateRequestDtos, prices));
+    }
+
+    private ResponseDto<OrderBatchResponseDto> saveOrders(List<OrderCreateRequestDto> orderCreateRequestDtos, Map<String, Optional<BigDecimal>> prices) {
+        // validate every line first so a bad line is reported without aborting the valid ones
+        OrderBatchItemResultDto[] results = new OrderBatchItemResultDto[orderCreateRequestDtos.size()];
+        List<Integer> validIndexes = new ArrayList<>(orderCreateRequestDtos.size());
+        for (int i = 0; i < orderCreateRequestDtos.size(); i++) {
+            OrderCreateRequestDto orderCreateRequestDto = orderCreateRequestDtos.get(i);
+            if (orderCreateRequestDto == null) {
+                results[i] = OrderBatchItemResultDto.rejected(i, List.of("order is required"));
+                continue;
+            }
+            Set<ConstraintViolation<OrderCreateRequestDto>> violations = validator.validate(orderCreateRequestDto);
+            if (!violations.isEmpty()) {
+                results[i] = OrderBatchItemResultDto.rejected(i, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .toList());
+                continue;
+            }
+            // no prices (validation disabled or failing open) : checkPrice accepts the line
+            String priceError = checkPrice(orderCreateRequestDto, prices);
+            if (priceError != null) {
+                results[i] = OrderBatchItemResultDto.rejected(i, List.of(priceError));
+            } else if (!inventoryService.reserve(orderCreateRequestDto.skuCode(), orderCreateRequestDto.quantity())) {
+                results[i] = OrderBatchItemResultDto.rejected(i, List.of(buildOutOfStockMsg(orderCreateRequestDto.skuCode())));
+            } else {
+                validIndexes.add(i);
+            }
+        }
+
+        // one header lookup for all the distinct order numbers of the batch
+        Map<String, Long> headerIds = orderHeaderRepository.findOrCreateIds(validIndexes.stream().map(index -> orderCreateRequestDtos.get(index).orderNumber()).distinct().toList());
+
+        // persist in chunks of the JDBC batch size, clearing the persistence context between chunks
+        for (int from = 0; from < validIndexes.size(); from += jdbcBatchSize) {
+            List<Integer> chunk = validIndexes.subList(from, Math.min(from + jdbcBatchSize, validIndexes.size()));
+            List<Order> orders = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                Order order = mapper.toObject(orderCreateRequestDtos.get(index));
+                order.setOrderStatus(OrderStatus.UNDER_PROCESS);
+                order.setHeaderId(headerIds.get(order.getOrderNumber()));
+                orders.add(order);
+            }
+            orderRepository.saveAll(orders);
+            orderOutboxService.recordAll(OrderEventType.ORDER_PLACED, orders);
+            entityManager.flush();
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunk.get(i)] = OrderBatchItemResultDto.accepted(chunk.get(i), mapper.toDto(orders.get(i)));
+            }
+            entityManager.clear();
+        }
+
+        int accepted = validIndexes.size();
+        log.info("Batch of {} orders placed : {} accepted, {} rejected", results.length, accepted, results.length - accepted);
+        return ResponseDto.created(new OrderBatchResponseDto(accepted, results.length - accepted, Arrays.asList(results)), "orders");
+    }
+
+    @Override
+    @Transactional
     public ResponseDto<OrderResponseDto> updateAnOrder(Integer orderId, OrderUpdateRequestDto orderUpdateRequestDto) {
 
         Order order = orderRepository.findById(orderId).orElseThrow(()-> new CustomAppException(HttpStatus.NOT_FOUND,CustomAppException.buildNotFoundMsg(orderId,"order")));
 
+        // an order in process holds stock
+        if (order.getOrderStatus() == OrderStatus.UNDER_PROCESS) {
+            if (order.getSkuCode().equals(orderUpdateRequestDto.skuCode())) {
+                // same SKU : only the difference moves, the units already held are never given up in between
+                int difference = orderUpdateRequestDto.quantity() - order.getQuantity();
+                if (difference > 0 && !inventoryService.reserve(orderUpdateRequestDto.skuCode(), difference)) {
+                    throw new CustomAppException(HttpStatus.CONFLICT, buildOutOfStockMsg(orderUpdateRequestDto.skuCode()));
+                }
+                if (difference < 0) {
+                    inventoryService.release(order.getSkuCode(), -difference);
+                }
+            } else {
+                // another SKU : take the new line's units before giving the old ones back
+                if (!inventoryService.reserve(orderUpdateRequestDto.skuCode(), orderUpdateRequestDto.quantity())) {
+                    throw new CustomAppException(HttpStatus.CONFLICT, buildOutOfStockMsg(orderUpdateRequestDto.skuCode()));
+                }
+                inventoryService.release(order.getSkuCode(), order.getQuantity());
+            }
+        }
 
-//        ToDo : check if the order id will get updated or not after using the mapper :
-//        ToDo : check if the skuCode changes , if yes you have check it in the Inventory service
-        order = mapper.toObject(orderUpdateRequestDto);
-        order= orderRepository.save(order);
-        return ResponseDto.retrieved(mapper.toDto(order),"order");
+        // update the managed entity in place, its version makes a concurrent update fail instead of being lost
+        mapper.updateObject(orderUpdateRequestDto, order);
+        order= orderRepository.saveAndFlush(order);
+        orderOutboxService.record(OrderEventType.ORDER_UPDATED, order);
+        return ResponseDto.updated(mapper.toDto(order),"order");
+    }
+
+    @Override
+    @Transactional
+    public ResponseDto<OrderResponseDto> patchAnOrder(Integer orderId, OrderPatchRequestDto orderPatchRequestDto) {
+        // the UPDATE both writes the price and tells a missing order apart, a 404 costs no other statement
+        if (orderRepository.updatePrice(orderId, orderPatchRequestDto.price()) == 0) {
+            throw new CustomAppException(HttpStatus.NOT_FOUND, CustomAppException.buildNotFoundMsg(orderId, "order"));
+        }
+        // the cached state of this order is stale from now on
+        entityManager.getEntityManagerFactory().getCache().evict(Order.class, orderId);
+        // MySQL has no UPDATE ... RETURNING : the new state is read back by primary key, in the same transaction
+        Order order = orderRepository.findById(orderId).orElseThrow(()-> new CustomAppException(HttpStatus.NOT_FOUND,CustomAppException.buildNotFoundMsg(orderId,"order")));
+        orderOutboxService.record(OrderEventType.ORDER_UPDATED, order);
+        return ResponseDto.updated(mapper.toDto(order),"order");
     }
 
     @Override
+    @Transactional
     public ResponseDto<OrderResponseDto> deleteAnOrder(Integer orderId) {
         Order order = orderRepository.findById(orderId).orElseThrow(()-> new CustomAppException(HttpStatus.NOT_FOUND,CustomAppException.buildNotFoundMsg(orderId,"order")));
 
         orderRepository.delete(order);
+        orderOutboxService.record(OrderEventType.ORDER_DELETED, order);
+        // an order still in process holds its stock, give it back once the delete commits
+        if (order.getOrderStatus() == OrderStatus.UNDER_PROCESS) {
+            inventoryService.release(order.getSkuCode(), order.getQuantity());
+        }
 
 //        ToDo: check if the saved order variable will be cleared after deleting the order :
         return ResponseDto.deleted(mapper.toDto(order),"order");
@@ -69,9 +381,82 @@ public class OrderService implements IOrderService{
     }
 
     @Override
-    public ResponseDto<OrderResponseDto> cancelAnOrder(Integer orderId) {
+    public ResponseDto<OrderResponseDto> cancelAnOrder(Integer orderId, String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "The Idempotency-Key must have between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        // the order usually comes from the second-level cache and its versioned UPDATE lets one concurrent
+        // cancellation win, the others retry on the state it left. A retry of a cancellation that won writes nothing,
+        // where a bulk JPQL transition would have the whole orders region invalidated even when it changed no row
+        return retryOnVersionConflict(() -> {
+            Order order = orderRepository.findById(orderId).orElseThrow(()-> new CustomAppException(HttpStatus.NOT_FOUND,CustomAppException.buildNotFoundMsg(orderId,"order")));
+
+            if (order.getOrderStatus() != OrderStatus.UNDER_PROCESS) {
+                // a retry of the cancellation that won gets the same answer, without a write or releasing the stock twice
+                if (idempotencyKey != null && order.getOrderStatus() == OrderStatus.CANCELED && idempotencyKey.equals(order.getCancelKey())) {
+                    return ResponseDto.updated(mapper.toDto(order),"order");
+                }
+                throw new CustomAppException(HttpStatus.CONFLICT, "The order with id " + orderId + " can not be canceled, it is " + order.getOrderStatus());
+            }
+
+            order.setOrderStatus(OrderStatus.CANCELED);
+            order.setCancelKey(idempotencyKey);
+            order = orderRepository.saveAndFlush(order);
+            orderOutboxService.record(OrderEventType.ORDER_CANCELED, order);
+            inventoryService.release(order.getSkuCode(), order.getQuantity());
+            return ResponseDto.updated(mapper.toDto(order),"order");
+        });
+    }
+
+    /**
+     * Runs a read-then-write in its own transaction, again when its versioned UPDATE lost the race to a concurrent
+     * writer (or started from a cache entry that was not current) : the next attempt reads the state that won.
+     */
+    private <T> T retryOnVersionConflict(Supplier<T> attempt) {
+        for (int attempts = 1; ; attempts++) {
+            try {
+                return transactionTemplate.execute(status -> attempt.get());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempts >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Map<String, Optional<BigDecimal>> catalogPrices(List<String> skuCodes) {
+        try {
+            return productCatalogClient.getPrices(skuCodes);
+        } catch (CustomAppException e) {
+            if (priceValidationFailOpen) {
+                log.warn("Product catalog unavailable, accepting client prices : {}", e.getMessage());
+                return Map.of();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return why the order price is refused, null when it matches the catalog
+     * (or when the catalog could not answer and validation fails open)
+     */
+    private static String checkPrice(OrderCreateRequestDto orderCreateRequestDto, Map<String, Optional<BigDecimal>> prices) {
+        Optional<BigDecimal> catalogPrice = prices.get(orderCreateRequestDto.skuCode());
+        if (catalogPrice == null) {
+            return null;
+        }
+        if (catalogPrice.isEmpty()) {
+            return "The product " + orderCreateRequestDto.skuCode() + " does not exist in the catalog";
+        }
+        if (catalogPrice.get().compareTo(orderCreateRequestDto.price()) != 0) {
+            return "The price of " + orderCreateRequestDto.skuCode() + " is " + catalogPrice.get() + ", not " + orderCreateRequestDto.price();
+        }
         return null;
     }
 
+    private static String buildOutOfStockMsg(String skuCode) {
+        return "Not enough stock for the sku " + skuCode;
+    }
+
 
 }
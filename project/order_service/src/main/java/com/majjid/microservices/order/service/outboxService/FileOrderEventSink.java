@@ -0,0 +1,62 @@
+package com.majjid.microservices.order.service.outboxService;
+
+import com.majjid.microservices.order.Dto.order.OrderEventDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Appends events as NDJSON to a local file and forces it to disk before acknowledging the batch
+ * ({@code orders.outbox.sink=file}, the default). Publishers are serialized by a {@link ReentrantLock}, not a monitor,
+ * so a virtual thread waiting on the disk does not pin its carrier.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileOrderEventSink(ObjectMapper objectMapper, @Value("${orders.outbox.file.path:data/order-events.ndjson}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void publish(List<OrderEventDto> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+        for (OrderEventDto event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+
+        lock.lock();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(path, CREATE, WRITE, APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.majjid.microservices.order.service.outboxService;
+
+import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.enums.OrderEventType;
+
+import java.util.List;
+
+public interface IOrderOutboxService {
+
+    void record(OrderEventType eventType, Order order);
+    void recordAll(OrderEventType eventType, List<Order> orders);
+
+    int relay();
+}
@@ -0,0 +1,31 @@
+package com.majjid.microservices.order.service.outboxService;
+
+import com.majjid.microservices.order.Dto.order.OrderEventDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps published events in memory, meant for tests ({@code orders.outbox.sink=memory}).
+ */
+@Component
+@ConditionalOnProperty(name = "orders.outbox.sink", havingValue = "memory")
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final List<OrderEventDto> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OrderEventDto> events) {
+        this.events.addAll(events);
+    }
+
+    public synchronized List<OrderEventDto> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
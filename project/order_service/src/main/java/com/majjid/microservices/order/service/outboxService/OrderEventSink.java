@@ -0,0 +1,14 @@
+package com.majjid.microservices.order.service.outboxService;
+
+import com.majjid.microservices.order.Dto.order.OrderEventDto;
+
+import java.util.List;
+
+/**
+ * Where the outbox relay publishes order events. The batch is removed from the outbox
+ * only when this returns normally, throwing makes the relay retry the same batch later.
+ */
+public interface OrderEventSink {
+
+    void publish(List<OrderEventDto> events) throws Exception;
+}
@@ -0,0 +1,123 @@
+package com.majjid.microservices.order.service.outboxService;
+
+import com.majjid.microservices.order.Dto.order.OrderEventDto;
+import com.majjid.microservices.order.mappers.CustomMapper;
+import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.OrderOutboxEvent;
+import com.majjid.microservices.order.model.enums.OrderEventType;
+import com.majjid.microservices.order.repository.OrderOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox of order changes.
+ * {@link #record} joins the caller's transaction, so an event exists if and only if its change committed.
+ * {@link #relay()} drains the table in id order and in batches to the configured {@link OrderEventSink};
+ * rows are deleted only after the sink accepted them, which makes delivery at least once and restart safe.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderOutboxService implements IOrderOutboxService {
+
+    // SKIP LOCKED lets several instances relay in parallel without handing out the same rows
+    private static final String SELECT_BATCH_SQL =
+            "SELECT id, order_id, event_type, payload, created_at FROM t_order_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_SQL = "DELETE FROM t_order_outbox WHERE id = ?";
+
+    private static final RowMapper<OrderEventDto> EVENT_ROW_MAPPER = (rs, rowNum) -> new OrderEventDto(
+            rs.getLong("id"),
+            OrderEventType.valueOf(rs.getString("event_type")),
+            rs.getInt("order_id"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final CustomMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final OrderEventSink orderEventSink;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OrderEventType eventType, Order order) {
+        orderOutboxRepository.save(toOutboxEvent(eventType, order, Instant.now()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(OrderEventType eventType, List<Order> orders) {
+        Instant now = Instant.now();
+        List<OrderOutboxEvent> events = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            events.add(toOutboxEvent(eventType, order, now));
+        }
+        orderOutboxRepository.saveAll(events);
+    }
+
+    /**
+     * @return the number of events published by this run
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${orders.outbox.relay-interval-ms:500}")
+    public int relay() {
+        int published = 0;
+        int batch;
+        try {
+            do {
+                batch = transactionTemplate.execute(status -> relayBatch());
+                published += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Order outbox relay failed after {} events, will retry", published, e);
+        }
+        return published;
+    }
+
+    private int relayBatch() {
+        List<OrderEventDto> events = jdbcTemplate.query(SELECT_BATCH_SQL, EVENT_ROW_MAPPER, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            orderEventSink.publish(events);
+        } catch (Exception e) {
+            throw new IllegalStateException("The order event sink rejected a batch of " + events.size() + " events", e);
+        }
+
+        List<Object[]> ids = new ArrayList<>(events.size());
+        for (OrderEventDto event : events) {
+            ids.add(new Object[]{event.eventId()});
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids);
+        log.debug("Published {} order events", events.size());
+        return events.size();
+    }
+
+    private OrderOutboxEvent toOutboxEvent(OrderEventType eventType, Order order, Instant createdAt) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(order.getId());
+        event.setEventType(eventType);
+        event.setPayload(objectMapper.writeValueAsString(mapper.toDto(order)));
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
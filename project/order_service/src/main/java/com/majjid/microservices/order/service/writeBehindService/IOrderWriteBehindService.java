@@ -0,0 +1,33 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import com.majjid.microservices.order.model.Order;
+
+import java.util.Optional;
+
+public interface IOrderWriteBehindService {
+
+    /**
+     * @return true when new orders are queued ({@code orders.write-behind.enabled}) instead of saved by the caller
+     */
+    boolean isEnabled();
+
+    /**
+     * Gives the order its id, writes it to the local journal and queues it for the flushers.
+     * Returns once the order survives a crash, before it is in the database.
+     * Inside a transaction the order is journaled just before the transaction commits, so a journal failure rolls it
+     * back, and queued once it committed : nothing is queued if it rolls back.
+     *
+     * @throws com.majjid.microservices.order.config.CustomAppException SERVICE_UNAVAILABLE when the queue stays full
+     */
+    Order enqueue(Order order);
+
+    /**
+     * @return the order while it is queued, empty once it is committed (or if it was never queued)
+     */
+    Optional<Order> findQueued(Integer orderId);
+
+    /**
+     * @return the number of orders queued or being written
+     */
+    int backlog();
+}
@@ -0,0 +1,70 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order ids handed out from blocks reserved in {@code t_id_generator}, the row Hibernate allocates
+ * {@link com.majjid.microservices.order.model.Order} ids from, so queued and directly saved orders never collide.
+ * <p>
+ * Hibernate's pooled optimizer owns the {@code allocationSize} ids below the value it reads, so a block
+ * reading {@code next_val = v} takes {@code v + 1 .. v + blockSize} and leaves {@code v + blockSize + allocationSize}
+ * behind : the next block read by Hibernate starts right after ours.
+ */
+final class OrderIdBlocks {
+
+    // Order#id : @TableGenerator(pkColumnValue = "t_order", allocationSize = 50)
+    private static final String GENERATOR_NAME = "t_order";
+    private static final int HIBERNATE_ALLOCATION_SIZE = 50;
+
+    private static final String SELECT_SQL = "SELECT next_val FROM t_id_generator WHERE generator_name = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE t_id_generator SET next_val = ? WHERE generator_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    // a ReentrantLock, not a monitor : the allocation round trip would pin the carrier of a virtual thread caller
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock
+    private long next = 1;
+    private long end = 0;
+
+    OrderIdBlocks(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // its own short transaction, the row lock is not held for the caller's
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    int next() {
+        lock.lock();
+        try {
+            if (next > end) {
+                allocate();
+            }
+            return Math.toIntExact(next++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void allocate() {
+        lock.lock();
+        try {
+            Long value = transactionTemplate.execute(status -> {
+                Long current = jdbcTemplate.queryForObject(SELECT_SQL, Long.class, GENERATOR_NAME);
+                jdbcTemplate.update(UPDATE_SQL, current + blockSize + HIBERNATE_ALLOCATION_SIZE, GENERATOR_NAME);
+                return current;
+            });
+            next = value + 1;
+            end = value + blockSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
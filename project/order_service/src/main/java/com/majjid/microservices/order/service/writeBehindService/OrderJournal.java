@@ -0,0 +1,246 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import com.majjid.microservices.order.Dto.order.OrderResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Local durability log of the queued orders : one NDJSON line per order, in segment files
+ * ({@code orders-<sequence>.ndjson}) deleted once every order they hold is committed.
+ * <p>
+ * Appends are group committed : a caller writes its line, then waits for a {@code force} covering it,
+ * and one {@code force} covers every line written before it started.
+ * The locks are {@link ReentrantLock}s, not monitors : callers are virtual threads and a monitor held
+ * across a write or a {@code force} would pin their carrier for the whole disk I/O.
+ */
+@Slf4j
+final class OrderJournal {
+
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean sync;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // guarded by writeLock
+    private Segment active;
+    // segments of a previous run read by recover()
+    private List<Path> recovered = List.of();
+
+    /**
+     * One log file. {@code pending} counts its orders not committed yet.
+     */
+    static final class Segment {
+        private final Path path;
+        private final long sequence;
+        private final FileChannel channel;
+        private final AtomicInteger pending = new AtomicInteger();
+        // serialises the forces and the close of the channel
+        private final ReentrantLock forceLock = new ReentrantLock();
+        // written under writeLock, read by the callers waiting for a force
+        private volatile long written;
+        private volatile long synced;
+        private volatile boolean closed;
+
+        private Segment(Path path, long sequence) throws IOException {
+            this.path = path;
+            this.sequence = sequence;
+            this.channel = FileChannel.open(path, CREATE_NEW, WRITE);
+        }
+    }
+
+    OrderJournal(ObjectMapper objectMapper, Path directory, long segmentSize, boolean sync) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+    }
+
+    /**
+     * Writes the order to the log and returns once it is on disk.
+     *
+     * @return the segment holding it, to {@link #committed} once the order is in the database
+     */
+    Segment append(OrderResponseDto order) throws IOException {
+        byte[] line = line(order);
+        Segment segment;
+        long end;
+        writeLock.lock();
+        try {
+            segment = activeSegment();
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer);
+            }
+            end = segment.written + line.length;
+            segment.written = end;
+            segment.pending.incrementAndGet();
+        } finally {
+            writeLock.unlock();
+        }
+        if (sync) {
+            force(segment, end);
+        }
+        return segment;
+    }
+
+    /**
+     * Forgets {@code count} orders of the segment, deleting it once it is closed and all of them are committed.
+     */
+    void committed(Segment segment, int count) {
+        if (segment.pending.addAndGet(-count) == 0 && segment.closed) {
+            delete(segment);
+        }
+    }
+
+    /**
+     * @return the orders of every segment left by a previous run, oldest first
+     */
+    List<OrderResponseDto> recover() throws IOException {
+        List<OrderResponseDto> orders = new ArrayList<>();
+        recovered = segments();
+        for (Path path : recovered) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        orders.add(objectMapper.readValue(line, OrderResponseDto.class));
+                    } catch (RuntimeException e) {
+                        // a line cut by the crash was never acknowledged
+                        log.warn("Skipping an unreadable line of {}", path);
+                    }
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Deletes the segments left by a previous run, once {@link #recover() their orders} are committed.
+     */
+    void deleteRecovered() throws IOException {
+        for (Path path : recovered) {
+            Files.deleteIfExists(path);
+        }
+        recovered = List.of();
+    }
+
+    void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (active != null) {
+                roll(active);
+                active = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Segment activeSegment() throws IOException {
+        if (active != null && active.written < segmentSize) {
+            return active;
+        }
+        long sequence = active == null ? nextSequence() : active.sequence + 1;
+        if (active != null) {
+            roll(active);
+        }
+        Files.createDirectories(directory);
+        active = new Segment(directory.resolve(PREFIX + String.format("%019d", sequence) + SUFFIX), sequence);
+        return active;
+    }
+
+    // the lines of a closed segment are all forced before its channel is released
+    private void roll(Segment segment) throws IOException {
+        segment.forceLock.lock();
+        try {
+            segment.channel.force(false);
+            segment.synced = segment.written;
+            segment.channel.close();
+        } finally {
+            segment.forceLock.unlock();
+        }
+        segment.closed = true;
+        if (segment.pending.get() == 0) {
+            delete(segment);
+        }
+    }
+
+    private void force(Segment segment, long end) throws IOException {
+        if (segment.synced >= end) {
+            return;
+        }
+        segment.forceLock.lock();
+        try {
+            // a force that started after our write already covered it
+            if (segment.synced >= end) {
+                return;
+            }
+            long target = segment.written;
+            segment.channel.force(false);
+            segment.synced = target;
+        } finally {
+            segment.forceLock.unlock();
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Failed to delete the journal segment {}", segment.path, e);
+        }
+    }
+
+    private long nextSequence() throws IOException {
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        String name = segments.getLast().getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())) + 1;
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private byte[] line(OrderResponseDto order) {
+        byte[] json = objectMapper.writeValueAsBytes(order);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+}
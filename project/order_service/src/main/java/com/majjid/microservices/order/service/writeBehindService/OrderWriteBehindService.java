@@ -0,0 +1,371 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import com.majjid.microservices.order.Dto.order.OrderResponseDto;
+import com.majjid.microservices.order.config.CustomAppException;
+import com.majjid.microservices.order.mappers.CustomMapper;
+import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.enums.OrderEventType;
+import com.majjid.microservices.order.repository.OrderHeaderRepository;
+import com.majjid.microservices.order.repository.OrderRepository;
+import com.majjid.microservices.order.service.inventoryService.IInventoryService;
+import com.majjid.microservices.order.service.outboxService.IOrderOutboxService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind placement of orders ({@code orders.write-behind.enabled=true}).
+ * <ul>
+ *     <li>the caller gets an id from a block reserved in advance ({@link OrderIdBlocks}),</li>
+ *     <li>the order is appended to a local journal and forced to disk, group committed with the concurrent callers ({@link OrderJournal}),</li>
+ *     <li>then handed to the flushers through a lock-free {@link RingBuffer} : the request is answered without touching MySQL,</li>
+ *     <li>flusher threads drain the buffer and insert each batch, its headers and its outbox events in one transaction.</li>
+ * </ul>
+ * Backpressure : {@code capacity} orders may be queued or being written, further callers wait up to
+ * {@code offerTimeout} for room and then get a 503.
+ * <p>
+ * At startup the journal left by a crash is replayed : its orders not in t_order yet are inserted before the first request.
+ * Their stock reservations are not replayed, the inventory counters already accept losing the last flush interval.
+ * A caller whose journal write failed gets an error while its order may still be recovered, like a commit whose answer was lost :
+ * retry with an Idempotency-Key. With a key the order is journaled just before the key's transaction commits : a journal
+ * failure rolls back the stored response too, and a rollback (lost race on the key, any later failure) leaves no order
+ * queued. Only a crash between a journal write and a failed commit would still recover that order.
+ */
+@Service
+@Slf4j
+public class OrderWriteBehindService implements IOrderWriteBehindService {
+
+    private static final String INSERT_SQL = "INSERT INTO t_order (id, order_number, header_id, sku_code, order_status, price, quantity, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private final WriteBehindProperties properties;
+    private final OrderRepository orderRepository;
+    private final OrderHeaderRepository orderHeaderRepository;
+    private final IOrderOutboxService orderOutboxService;
+    private final IInventoryService inventoryService;
+    private final CustomMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactory sessionFactory;
+    private final OrderIdBlocks idBlocks;
+    private final OrderJournal journal;
+    private final RingBuffer<QueuedOrder> ringBuffer;
+    // one permit per order queued or being written
+    private final Semaphore capacity;
+    private final Map<Integer, Order> queued = new ConcurrentHashMap<>();
+    private final List<Thread> flushers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private record QueuedOrder(Order order, OrderJournal.Segment segment) {
+    }
+
+    public OrderWriteBehindService(WriteBehindProperties properties,
+                                   OrderRepository orderRepository,
+                                   OrderHeaderRepository orderHeaderRepository,
+                                   IOrderOutboxService orderOutboxService,
+                                   IInventoryService inventoryService,
+                                   CustomMapper mapper,
+                                   ObjectMapper objectMapper,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   EntityManagerFactory entityManagerFactory) {
+        this.properties = properties;
+        this.orderRepository = orderRepository;
+        this.orderHeaderRepository = orderHeaderRepository;
+        this.orderOutboxService = orderOutboxService;
+        this.inventoryService = inventoryService;
+        this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.idBlocks = new OrderIdBlocks(jdbcTemplate, transactionTemplate, properties.idBlockSize());
+        this.journal = new OrderJournal(objectMapper, Path.of(properties.journalPath()),
+                properties.journalSegmentSize().toBytes(), properties.journalSync());
+        this.ringBuffer = new RingBuffer<>(properties.capacity());
+        this.capacity = new Semaphore(properties.capacity());
+    }
+
+    /**
+     * Replays the journal of a previous run, whatever the mode : orders accepted before a switch back
+     * to synchronous placement are not lost. Runs before the web server takes requests.
+     */
+    @PostConstruct
+    void start() throws IOException {
+        recover();
+        if (!properties.enabled()) {
+            return;
+        }
+        idBlocks.allocate();
+        running = true;
+        for (int i = 0; i < properties.flushers(); i++) {
+            flushers.add(Thread.ofPlatform().name("order-write-behind-" + i).daemon().start(this::flushLoop));
+        }
+        log.info("Write-behind order placement enabled : {} flushers, capacity {}", properties.flushers(), properties.capacity());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    @Override
+    public Order enqueue(Order order) {
+        if (!running) {
+            throw new CustomAppException(HttpStatus.SERVICE_UNAVAILABLE, "Orders are not accepted right now, retry later");
+        }
+        try {
+            if (!capacity.tryAcquire(properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new CustomAppException(HttpStatus.SERVICE_UNAVAILABLE, "Too many orders waiting to be saved, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomAppException(HttpStatus.SERVICE_UNAVAILABLE, "Too many orders waiting to be saved, retry later");
+        }
+
+        try {
+            order.setId(idBlocks.next());
+            order.setVersion(0L);
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // inside the caller's transaction (Idempotency-Key) : journaled before it commits, so a journal failure
+            // rolls back the stored response with it, and queued once it committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private OrderJournal.Segment segment;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    try {
+                        segment = journal.append(mapper.toDto(order));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to journal the order " + order.getId(), e);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        queue(order, segment);
+                        return;
+                    }
+                    // the commit failed after the journal write : the line is forgotten, never flushed
+                    if (segment != null) {
+                        journal.committed(segment, 1);
+                    }
+                    capacity.release();
+                }
+            });
+            return order;
+        }
+
+        try {
+            queue(order, journal.append(mapper.toDto(order)));
+            return order;
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException("Failed to journal the order " + order.getId(), e);
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    private void queue(Order order, OrderJournal.Segment segment) {
+        queued.put(order.getId(), order);
+        // a permit guarantees a free slot
+        if (!ringBuffer.offer(new QueuedOrder(order, segment))) {
+            throw new IllegalStateException("The write-behind ring buffer is full despite a permit");
+        }
+    }
+
+    @Override
+    public Optional<Order> findQueued(Integer orderId) {
+        return Optional.ofNullable(queued.get(orderId));
+    }
+
+    @Override
+    public int backlog() {
+        return properties.capacity() - capacity.availablePermits();
+    }
+
+    /**
+     * Stops taking orders and lets the flushers write what is queued; what they can not write stays in the journal.
+     */
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread flusher : flushers) {
+            flusher.join(MAX_RETRY_BACKOFF.multipliedBy(2).toMillis());
+        }
+        journal.close();
+        log.info("Write-behind order placement stopped, {} orders left in the journal", backlog());
+    }
+
+    private void flushLoop() {
+        List<QueuedOrder> batch = new ArrayList<>(properties.batchSize());
+        long idleNanos = properties.idleWait().toNanos();
+        while (running || ringBuffer.size() > 0) {
+            batch.clear();
+            if (ringBuffer.drainTo(batch, properties.batchSize()) == 0) {
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            // the batch grows with the load : everything queued while the previous one was written goes in one commit
+            if (!write(batch)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Inserts the batch, retrying while the database is unavailable.
+     *
+     * @return false when stopped before the batch could be written, it stays in the journal
+     */
+    private boolean write(List<QueuedOrder> batch) {
+        long backoffMillis = 100;
+        while (true) {
+            try {
+                insert(batch.stream().map(QueuedOrder::order).toList());
+                completed(batch);
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() > 1) {
+                    // one order the database refuses must not hold back the others
+                    for (QueuedOrder queuedOrder : batch) {
+                        if (!write(List.of(queuedOrder))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                refused(batch.getFirst().order(), e);
+                completed(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return false;
+                }
+                log.error("Failed to write a batch of {} queued orders, retrying in {} ms", batch.size(), backoffMillis, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF.toMillis());
+            }
+        }
+    }
+
+    private void refused(Order order, DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            // saved by a previous attempt whose answer was lost
+            log.debug("Queued order {} was already saved", order.getId());
+            return;
+        }
+        log.error("Dropping the queued order {}, the database refuses it", order.getId(), e);
+        inventoryService.release(order.getSkuCode(), order.getQuantity());
+    }
+
+    private void insert(List<Order> orders) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Long> headerIds = orderHeaderRepository.findOrCreateIds(orders.stream().map(Order::getOrderNumber).distinct().toList());
+            List<Object[]> rows = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                order.setHeaderId(headerIds.get(order.getOrderNumber()));
+                rows.add(new Object[]{order.getId(), order.getOrderNumber(), order.getHeaderId(), order.getSkuCode(),
+                        order.getOrderStatus().name(), order.getPrice(), order.getQuantity(), order.getVersion()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            orderOutboxService.recordAll(OrderEventType.ORDER_PLACED, orders);
+        });
+        // the rows are written over JDBC, Hibernate does not know the cached filtered lookups miss them
+        sessionFactory.getCache().evictQueryRegion(OrderRepository.QUERY_CACHE_REGION);
+    }
+
+    private void completed(List<QueuedOrder> batch) {
+        for (QueuedOrder queuedOrder : batch) {
+            queued.remove(queuedOrder.order().getId());
+            journal.committed(queuedOrder.segment(), 1);
+        }
+        capacity.release(batch.size());
+    }
+
+    private void recover() throws IOException {
+        List<OrderResponseDto> journaled = journal.recover();
+        if (journaled.isEmpty()) {
+            return;
+        }
+
+        int recovered = 0;
+        for (int from = 0; from < journaled.size(); from += properties.batchSize()) {
+            List<OrderResponseDto> chunk = journaled.subList(from, Math.min(from + properties.batchSize(), journaled.size()));
+            Set<Integer> saved = new HashSet<>(orderRepository.findExistingIds(chunk.stream().map(dto -> (int) dto.id()).toList()));
+            List<Order> missing = chunk.stream()
+                    .filter(dto -> !saved.contains((int) dto.id()))
+                    .map(OrderWriteBehindService::toOrder)
+                    .toList();
+            if (missing.isEmpty()) {
+                continue;
+            }
+            try {
+                insert(missing);
+                recovered += missing.size();
+            } catch (DataIntegrityViolationException e) {
+                for (Order order : missing) {
+                    try {
+                        insert(List.of(order));
+                        recovered++;
+                    } catch (DataIntegrityViolationException refused) {
+                        log.error("Dropping the journaled order {}, the database refuses it", order.getId(), refused);
+                    }
+                }
+            }
+        }
+        journal.deleteRecovered();
+        log.info("Recovered {} queued orders from the journal ({} were already saved)", recovered, journaled.size() - recovered);
+    }
+
+    private static Order toOrder(OrderResponseDto dto) {
+        Order order = new Order();
+        order.setId(Math.toIntExact(dto.id()));
+        order.setOrderNumber(dto.orderNumber());
+        order.setSkuCode(dto.skuCode());
+        order.setPrice(dto.price());
+        order.setQuantity(dto.quantity());
+        order.setOrderStatus(dto.orderStatus());
+        order.setVersion(dto.version() == null ? 0L : dto.version());
+        return order;
+    }
+}
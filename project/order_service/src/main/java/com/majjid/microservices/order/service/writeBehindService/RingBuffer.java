@@ -0,0 +1,100 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi producer / multi consumer queue over a power of two array (Vyukov).
+ * Each slot carries a sequence number telling whether it is free for the producer of a given
+ * position or filled for its consumer, so producers and consumers only ever CAS a position counter
+ * and never wait on each other except when the buffer is full or empty.
+ */
+final class RingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumerPosition = new AtomicLong();
+
+    RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two, not " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false when the buffer is full
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = producerPosition.get();
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    // publishes the element to the consumer of this position
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // another producer took this position, try the next one
+        }
+    }
+
+    /**
+     * @return the oldest element, null when the buffer is empty
+     */
+    E poll() {
+        while (true) {
+            long position = consumerPosition.get();
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (consumerPosition.compareAndSet(position, position + 1)) {
+                    E element = elements.get(slot);
+                    elements.lazySet(slot, null);
+                    // hands the slot to the producer one lap ahead
+                    sequences.set(slot, position + mask + 1);
+                    return element;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} elements to {@code target}, oldest first.
+     *
+     * @return the number of elements moved
+     */
+    int drainTo(Collection<? super E> target, int max) {
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, producerPosition.get() - consumerPosition.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,35 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param enabled            answer POST /orders with 202 once the order is journaled and queued, instead of 201 after its commit
+ * @param capacity           orders queued or being written at most (a power of two), beyond it callers wait for room
+ * @param offerTimeout       how long a caller waits for room before getting a 503
+ * @param flushers           threads writing the queue to t_order
+ * @param batchSize          orders per transaction, at most
+ * @param idleWait           how long a flusher waits for orders when the queue is empty
+ * @param idBlockSize        order ids taken from t_id_generator in one round trip
+ * @param journalPath        directory of the local durability log
+ * @param journalSegmentSize size of a log file before the next one is started, a file is deleted once all its orders are committed
+ * @param journalSync        force the log to disk before answering; false survives a process crash but not a power loss
+ */
+@ConfigurationProperties(prefix = "orders.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("65536") int capacity,
+        @DefaultValue("50ms") Duration offerTimeout,
+        @DefaultValue("2") int flushers,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1ms") Duration idleWait,
+        @DefaultValue("1000") int idBlockSize,
+        @DefaultValue("data/order-journal") String journalPath,
+        @DefaultValue("16MB") DataSize journalSegmentSize,
+        @DefaultValue("true") boolean journalSync
+) {
+
+}
@@ -0,0 +1,8 @@
+-- Pooled id blocks for t_order (see Order#id), seeded above the existing ids
+CREATE TABLE t_id_generator (
+                                generator_name VARCHAR(64) PRIMARY KEY,
+                                next_val BIGINT NOT NULL
+);
+
+INSERT INTO t_id_generator (generator_name, next_val)
+SELECT 't_order', COALESCE(MAX(id), 0) + 50 FROM t_order;
@@ -0,0 +1,4 @@
+CREATE TABLE t_inventory (
+                             sku_code VARCHAR(255) PRIMARY KEY,
+                             quantity BIGINT NOT NULL
+);
@@ -0,0 +1,9 @@
+CREATE TABLE t_order_outbox (
+                                id BIGINT PRIMARY KEY,
+                                order_id INT NOT NULL,
+                                event_type VARCHAR(64) NOT NULL,
+                                payload TEXT NOT NULL,
+                                created_at DATETIME(6) NOT NULL
+);
+
+INSERT INTO t_id_generator (generator_name, next_val) VALUES ('t_order_outbox', 50);
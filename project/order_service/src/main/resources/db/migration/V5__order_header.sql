@@ -0,0 +1,20 @@
+-- One header per order number, t_order rows become its line items
+CREATE TABLE t_order_header (
+                                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                order_number VARCHAR(255) NOT NULL,
+                                created_at DATETIME(6) NOT NULL,
+                                CONSTRAINT uk_order_header_order_number UNIQUE (order_number)
+);
+
+ALTER TABLE t_order ADD COLUMN header_id BIGINT NULL;
+CREATE INDEX idx_order_header_id ON t_order (header_id);
+CREATE INDEX idx_order_order_number ON t_order (order_number);
+
+-- Data migration : one header per existing order number, then link the existing lines
+INSERT INTO t_order_header (order_number, created_at)
+SELECT DISTINCT order_number, NOW(6) FROM t_order WHERE order_number IS NOT NULL;
+
+UPDATE t_order o
+    JOIN t_order_header h ON h.order_number = o.order_number
+SET o.header_id = h.id
+WHERE o.header_id IS NULL;
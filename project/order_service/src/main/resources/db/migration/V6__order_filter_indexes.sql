@@ -0,0 +1,6 @@
+-- Keyset pages filtered by status or sku : equality on the first column, range and order on the id
+CREATE INDEX idx_order_status_id ON t_order (order_status, id);
+CREATE INDEX idx_order_sku_code_id ON t_order (sku_code, id);
+-- Same shape for the order number (InnoDB already appends the id, this makes it explicit)
+DROP INDEX idx_order_order_number ON t_order;
+CREATE INDEX idx_order_order_number_id ON t_order (order_number, id);
@@ -0,0 +1,4 @@
+-- Optimistic locking for updates, and the idempotency key of the cancellation that won
+ALTER TABLE t_order
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN cancel_key VARCHAR(64) NULL;
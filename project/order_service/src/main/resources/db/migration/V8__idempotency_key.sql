@@ -0,0 +1,8 @@
+-- Responses of POST /orders by Idempotency-Key, kept for orders.idempotency.ttl
+CREATE TABLE t_idempotency_key (
+                                   idempotency_key VARCHAR(64) PRIMARY KEY,
+                                   request_hash CHAR(64) NOT NULL,
+                                   response_body TEXT NOT NULL,
+                                   created_at DATETIME(6) NOT NULL,
+                                   INDEX idx_idempotency_key_created_at (created_at)
+);
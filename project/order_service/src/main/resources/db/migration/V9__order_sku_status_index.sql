@@ -0,0 +1,2 @@
+-- Keyset pages filtered by sku and status : both equalities on the index, range and order on the id
+CREATE INDEX idx_order_sku_code_status_id ON t_order (sku_code, order_status, id);
@@ -1,20 +1,56 @@
 package com.majjid.microservices.order;
 
+import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.enums.OrderEventType;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import com.majjid.microservices.order.repository.OrderRepository;
+import com.majjid.microservices.order.service.outboxService.InMemoryOrderEventSink;
 import io.restassured.http.ContentType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import io.restassured.RestAssured;
 import org.testcontainers.containers.MySQLContainer;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Import(TestcontainersConfiguration.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"orders.outbox.sink=memory",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.majjid.microservices.order.RecordingStatementInspector"})
 class OrderServiceApplicationTests {
 
     @ServiceConnection
@@ -23,6 +59,21 @@ class OrderServiceApplicationTests {
     @LocalServerPort
     private int port;
 
+    @Autowired
+    private InMemoryOrderEventSink orderEventSink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // far above the ids the table generator hands out during the suite
+    private static final int EXPLAIN_FIRST_ID = 1_000_000;
+
     @BeforeEach
     void setup() {
         RestAssured.baseURI = "http://localhost";
@@ -60,4 +111,546 @@ class OrderServiceApplicationTests {
                 .body("message", containsString("created with success"))
                 .body("success", equalTo(true));
     }
+
+    @Test
+    void shouldPaginateOrdersWithACursor() {
+        for (int i = 0; i < 3; i++) {
+            RestAssured.given()
+                    .contentType(ContentType.JSON)
+                    .body("""
+                            {
+                              "orderNumber": "ORD-PAGE",
+                              "skuCode": "SKU-PAGE",
+                              "price": 5,
+                              "quantity": 1
+                            }
+                        """)
+                    .post("/orders")
+                    .then()
+                    .statusCode(201);
+        }
+
+        Integer nextCursor = RestAssured.given()
+                .queryParam("size", 2)
+                .when()
+                .get("/orders")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content.size()", equalTo(2))
+                .body("data.hasNext", equalTo(true))
+                .body("data.nextCursor", notNullValue())
+                .extract().path("data.nextCursor");
+
+        RestAssured.given()
+                .queryParam("afterId", nextCursor)
+                .queryParam("size", 2)
+                .when()
+                .get("/orders")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content[0].id", greaterThan(nextCursor));
+    }
+
+    @Test
+    void shouldStreamOrdersAsNdjson() {
+        RestAssured.given()
+                .when()
+                .get("/orders/stream")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .contentType("application/x-ndjson");
+    }
+
+    @Test
+    void shouldPlaceOrdersInBatchWithPerItemResults() {
+        String requestBody = """
+                [
+                  { "orderNumber": "ORD-BATCH", "skuCode": "SKU-1", "price": 10.50, "quantity": 2 },
+                  { "orderNumber": "ORD-BATCH", "skuCode": "", "price": 10.50, "quantity": 2 },
+                  { "orderNumber": "ORD-BATCH", "skuCode": "SKU-3", "price": 3, "quantity": 1 }
+                ]
+            """;
+
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .post("/orders/batch")
+                .then()
+                .assertThat()
+                .statusCode(201)
+                .body("data.accepted", equalTo(2))
+                .body("data.rejected", equalTo(1))
+                .body("data.results[0].success", equalTo(true))
+                .body("data.results[0].order.id", notNullValue())
+                .body("data.results[1].success", equalTo(false))
+                .body("data.results[1].errors", not(empty()))
+                .body("data.results[2].order.skuCode", equalTo("SKU-3"));
+    }
+
+    @Test
+    void shouldFetchAnOrderWithAllItsLinesByNumber() {
+        String requestBody = """
+                [
+                  { "orderNumber": "ORD-AGGREGATE", "skuCode": "SKU-A", "price": 10.50, "quantity": 2 },
+                  { "orderNumber": "ORD-AGGREGATE", "skuCode": "SKU-B", "price": 4, "quantity": 1 }
+                ]
+            """;
+        RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders/batch").then().statusCode(201);
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        { "orderNumber": "ORD-AGGREGATE", "skuCode": "SKU-C", "price": 1, "quantity": 3 }
+                        """)
+                .post("/orders")
+                .then()
+                .statusCode(201);
+
+        RestAssured.given()
+                .when()
+                .get("/orders/by-number/ORD-AGGREGATE")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.orderNumber", equalTo("ORD-AGGREGATE"))
+                .body("data.lineCount", equalTo(3))
+                .body("data.total", equalTo(28.0f))
+                .body("data.lines.skuCode", contains("SKU-A", "SKU-B", "SKU-C"));
+
+        RestAssured.given()
+                .when()
+                .get("/orders/by-number/ORD-UNKNOWN")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void shouldFilterOrdersBySkuStatusAndNumber() {
+        String requestBody = """
+                [
+                  { "orderNumber": "ORD-FILTER-1", "skuCode": "SKU-FILTER", "price": 1, "quantity": 1 },
+                  { "orderNumber": "ORD-FILTER-1", "skuCode": "SKU-FILTER", "price": 1, "quantity": 1 },
+                  { "orderNumber": "ORD-FILTER-2", "skuCode": "SKU-FILTER", "price": 1, "quantity": 1 },
+                  { "orderNumber": "ORD-FILTER-2", "skuCode": "SKU-FILTER-OTHER", "price": 1, "quantity": 1 }
+                ]
+            """;
+        RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders/batch").then().statusCode(201);
+
+        Integer nextCursor = RestAssured.given()
+                .when()
+                .get("/orders?skuCode=SKU-FILTER&size=2")
+                .then()
+                .statusCode(200)
+                .body("data.content.skuCode", everyItem(equalTo("SKU-FILTER")))
+                .body("data.hasNext", equalTo(true))
+                .extract().path("data.nextCursor");
+        RestAssured.given()
+                .when()
+                .get("/orders?skuCode=SKU-FILTER&size=2&afterId=" + nextCursor)
+                .then()
+                .statusCode(200)
+                .body("data.content", hasSize(1))
+                .body("data.hasNext", equalTo(false));
+
+        RestAssured.given()
+                .when()
+                .get("/orders?skuCode=SKU-FILTER&orderStatus=UNDER_PROCESS")
+                .then()
+                .statusCode(200)
+                .body("data.content", hasSize(3))
+                .body("data.content.orderStatus", everyItem(equalTo("UNDER_PROCESS")));
+
+        RestAssured.given()
+                .when()
+                .get("/orders?orderNumber=ORD-FILTER-2")
+                .then()
+                .statusCode(200)
+                .body("data.content.skuCode", contains("SKU-FILTER", "SKU-FILTER-OTHER"));
+
+        RestAssured.given()
+                .when()
+                .get("/orders?orderNumber=ORD-FILTER-2&skuCode=SKU-FILTER")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void filteredOrderQueriesShouldUseTheirIndexes() {
+        // a realistic distribution : one hot sku, a rare one, few COMPLETED orders on each
+        jdbcTemplate.batchUpdate("INSERT INTO t_order (id, order_number, sku_code, order_status, price, quantity) VALUES (?, ?, ?, ?, 1, 1)",
+                IntStream.range(0, 2000)
+                        .mapToObj(i -> new Object[]{EXPLAIN_FIRST_ID + i, "ORD-EXPLAIN-" + i / 5,
+                                i % 50 == 0 ? "SKU-EXPLAIN-RARE" : "SKU-EXPLAIN-HOT",
+                                i % 50 == 0 || i % 100 == 1 ? "COMPLETED" : "UNDER_PROCESS"})
+                        .toList());
+        try {
+            jdbcTemplate.execute("ANALYZE TABLE t_order");
+            Limit limit = Limit.of(51);
+
+            // the plans of the SQL Hibernate generates for each repository finder, not of hand written queries
+            assertEquals("idx_order_status_id", explainKey(() -> orderRepository.findByOrderStatusAndIdGreaterThanOrderByIdAsc(OrderStatus.COMPLETED, 0, limit),
+                    "COMPLETED", 0, 51));
+            assertEquals("idx_order_sku_code_id", explainKey(() -> orderRepository.findBySkuCodeAndIdGreaterThanOrderByIdAsc("SKU-EXPLAIN-RARE", 0, limit),
+                    "SKU-EXPLAIN-RARE", 0, 51));
+            assertEquals("idx_order_sku_code_status_id", explainKey(() -> orderRepository.findBySkuCodeAndOrderStatusAndIdGreaterThanOrderByIdAsc("SKU-EXPLAIN-HOT", OrderStatus.COMPLETED, 0, limit),
+                    "SKU-EXPLAIN-HOT", "COMPLETED", 0, 51));
+            assertEquals("idx_order_order_number_id", explainKey(() -> orderRepository.findByOrderNumberAndIdGreaterThanOrderByIdAsc("ORD-EXPLAIN-7", 0, limit),
+                    "ORD-EXPLAIN-7", 0, 51));
+        } finally {
+            // the rows were written behind Hibernate's back : remove them and the cache entries they left
+            jdbcTemplate.update("DELETE FROM t_order WHERE id >= ? AND id < ?", EXPLAIN_FIRST_ID, EXPLAIN_FIRST_ID + 2000);
+            entityManagerFactory.getCache().evictAll();
+        }
+    }
+
+    /**
+     * Runs a repository finder, then EXPLAINs the select it sent with the same parameters, in SQL order.
+     */
+    private String explainKey(Runnable finder, Object... parameters) {
+        List<String> statements = RecordingStatementInspector.record(finder);
+        String query = statements.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains("t_order"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("no select on t_order was sent, got " + statements));
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + query, parameters);
+        return String.valueOf(plan.get(0).get("key"));
+    }
+
+    @Test
+    void batchPlacementShouldUseFarFewerStatementsPerOrder() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String item = """
+                { "orderNumber": "ORD-PERF", "skuCode": "SKU-PERF", "price": 1, "quantity": 1 }""";
+
+        // statements prepared per order rather than wall-clock time : the same answer on any machine
+        int singleCount = 50;
+        long singleStart = statistics.getPrepareStatementCount();
+        for (int i = 0; i < singleCount; i++) {
+            RestAssured.given().contentType(ContentType.JSON).body(item).post("/orders").then().statusCode(201);
+        }
+        double singlePerOrder = (double) (statistics.getPrepareStatementCount() - singleStart) / singleCount;
+
+        int batchCount = 500;
+        String batch = "[" + String.join(",", Collections.nCopies(batchCount, item)) + "]";
+        long batchStart = statistics.getPrepareStatementCount();
+        RestAssured.given().contentType(ContentType.JSON).body(batch).post("/orders/batch")
+                .then().statusCode(201).body("data.accepted", equalTo(batchCount));
+        double batchPerOrder = (double) (statistics.getPrepareStatementCount() - batchStart) / batchCount;
+
+        assertTrue(singlePerOrder >= 1, "each single placement should insert its own row, got " + singlePerOrder);
+        assertTrue(batchPerOrder * 10 < singlePerOrder,
+                "batch placement should share its statements across the orders, got " + batchPerOrder + " per order against " + singlePerOrder);
+    }
+
+    @Test
+    void shouldRejectAnOrderWhenTheStockIsExhausted() {
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("{ \"quantity\": 2 }")
+                .put("/inventory/SKU-LIMITED")
+                .then()
+                .statusCode(200)
+                .body("data.quantity", equalTo(2));
+
+        String requestBody = """
+                {
+                  "orderNumber": "ORD-STOCK",
+                  "skuCode": "SKU-LIMITED",
+                  "price": 1,
+                  "quantity": 2
+                }
+            """;
+
+        RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(201);
+        RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(409).body("success", equalTo(false));
+
+        RestAssured.get("/inventory/SKU-LIMITED").then().statusCode(200).body("data.quantity", equalTo(0));
+    }
+
+    @Test
+    void concurrentCancellationsShouldHaveExactlyOneWinner() throws Exception {
+        RestAssured.given().contentType(ContentType.JSON).body("{ \"quantity\": 10 }").put("/inventory/SKU-CANCEL").then().statusCode(200);
+        String requestBody = """
+                { "orderNumber": "ORD-CANCEL", "skuCode": "SKU-CANCEL", "price": 1, "quantity": 4 }
+            """;
+        Integer orderId = RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(201).extract().path("data.id");
+
+        List<Integer> statuses = cancelConcurrently(orderId, null, 20);
+        assertEquals(1, Collections.frequency(statuses, 200));
+        assertEquals(19, Collections.frequency(statuses, 409));
+        RestAssured.get("/orders/" + orderId).then().statusCode(200).body("data.orderStatus", equalTo("CANCELED"));
+        // the stock is given back exactly once
+        RestAssured.get("/inventory/SKU-CANCEL").then().statusCode(200).body("data.quantity", equalTo(10));
+    }
+
+    @Test
+    void cancellationRetriesWithTheSameIdempotencyKeyShouldAllSucceedOnce() throws Exception {
+        RestAssured.given().contentType(ContentType.JSON).body("{ \"quantity\": 10 }").put("/inventory/SKU-CANCEL-KEY").then().statusCode(200);
+        String requestBody = """
+                { "orderNumber": "ORD-CANCEL-KEY", "skuCode": "SKU-CANCEL-KEY", "price": 1, "quantity": 4 }
+            """;
+        Integer orderId = RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(201).extract().path("data.id");
+
+        List<Integer> statuses = cancelConcurrently(orderId, "cancel-" + orderId, 10);
+        assertEquals(10, Collections.frequency(statuses, 200));
+        RestAssured.get("/inventory/SKU-CANCEL-KEY").then().statusCode(200).body("data.quantity", equalTo(10));
+
+        // another key is a different request, and the order is no longer cancelable
+        RestAssured.given().header("Idempotency-Key", "another-key").post("/orders/" + orderId + "/cancel").then().statusCode(409);
+    }
+
+    @Test
+    void shouldUpdateAnOrderInPlace() {
+        String requestBody = """
+                { "orderNumber": "ORD-UPDATE", "skuCode": "SKU-UPDATE", "price": 1, "quantity": 1 }
+            """;
+        Integer orderId = RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(201).extract().path("data.id");
+
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        { "skuCode": "SKU-UPDATE", "price": 2, "quantity": 3 }
+                        """)
+                .put("/orders/" + orderId)
+                .then()
+                .statusCode(200)
+                .body("data.id", equalTo(orderId))
+                .body("data.quantity", equalTo(3))
+                .body("data.orderNumber", equalTo("ORD-UPDATE"));
+    }
+
+    @Test
+    void updatingTheQuantityOfTheSameSkuOnlyMovesTheDifference() {
+        RestAssured.given().contentType(ContentType.JSON).body("{ \"quantity\": 5 }").put("/inventory/SKU-RESIZE").then().statusCode(200);
+        String requestBody = """
+                { "orderNumber": "ORD-RESIZE", "skuCode": "SKU-RESIZE", "price": 1, "quantity": 4 }
+            """;
+        Integer orderId = RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(201).extract().path("data.id");
+
+        // one more unit is free, the 4 held by the order are not asked for a second time
+        RestAssured.given().contentType(ContentType.JSON).body("""
+                        { "skuCode": "SKU-RESIZE", "price": 1, "quantity": 5 }
+                        """)
+                .put("/orders/" + orderId).then().statusCode(200).body("data.quantity", equalTo(5));
+        RestAssured.get("/inventory/SKU-RESIZE").then().statusCode(200).body("data.quantity", equalTo(0));
+
+        RestAssured.given().contentType(ContentType.JSON).body("""
+                        { "skuCode": "SKU-RESIZE", "price": 1, "quantity": 2 }
+                        """)
+                .put("/orders/" + orderId).then().statusCode(200).body("data.quantity", equalTo(2));
+        RestAssured.get("/inventory/SKU-RESIZE").then().statusCode(200).body("data.quantity", equalTo(3));
+    }
+
+    @Test
+    void shouldPatchThePriceWithoutTouchingTheRestOfTheOrder() {
+        String requestBody = """
+                { "orderNumber": "ORD-PATCH", "skuCode": "SKU-PATCH", "price": 1, "quantity": 2 }
+            """;
+        Integer orderId = RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(201).extract().path("data.id");
+        RestAssured.get("/orders/" + orderId).then().statusCode(200);
+        assertTrue(entityManagerFactory.getCache().contains(Order.class, orderId));
+
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        { "price": 4.25 }
+                        """)
+                .patch("/orders/" + orderId)
+                .then()
+                .statusCode(200)
+                .body("data.id", equalTo(orderId))
+                .body("data.price", equalTo(4.25f))
+                .body("data.quantity", equalTo(2))
+                .body("data.skuCode", equalTo("SKU-PATCH"))
+                .body("data.version", equalTo(1));
+
+        // the order was cached with its old price : the targeted UPDATE evicted that entry
+        RestAssured.get("/orders/" + orderId).then().statusCode(200).body("data.price", equalTo(4.25f));
+        RestAssured.given().contentType(ContentType.JSON).body("{ \"price\": 1 }").patch("/orders/999999999").then().statusCode(404);
+        RestAssured.given().contentType(ContentType.JSON).body("{}").patch("/orders/" + orderId).then().statusCode(400);
+    }
+
+    private static List<Integer> cancelConcurrently(Integer orderId, String idempotencyKey, int callers) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>(callers);
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    var request = RestAssured.given();
+                    if (idempotencyKey != null) {
+                        request.header("Idempotency-Key", idempotencyKey);
+                    }
+                    return request.post("/orders/" + orderId + "/cancel").statusCode();
+                }));
+            }
+            start.countDown();
+        }
+        List<Integer> statuses = new ArrayList<>(callers);
+        for (Future<Integer> future : futures) {
+            statuses.add(future.get());
+        }
+        return statuses;
+    }
+
+    @Test
+    void retriesWithTheSameIdempotencyKeyShouldPlaceOneOrder() throws Exception {
+        String requestBody = """
+                { "orderNumber": "ORD-IDEMPOTENT", "skuCode": "SKU-IDEMPOTENT", "price": 2, "quantity": 1 }
+            """;
+
+        Integer orderId = RestAssured.given().contentType(ContentType.JSON).header("Idempotency-Key", "place-1").body(requestBody)
+                .post("/orders")
+                .then()
+                .statusCode(201)
+                .header("Idempotent-Replayed", "false")
+                .extract().path("data.id");
+
+        RestAssured.given().contentType(ContentType.JSON).header("Idempotency-Key", "place-1").body(requestBody)
+                .post("/orders")
+                .then()
+                .statusCode(201)
+                .header("Idempotent-Replayed", "true")
+                .body("data.id", equalTo(orderId))
+                .body("success", equalTo(true));
+
+        // concurrent duplicates of a new key coalesce onto one execution
+        List<Future<Integer>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(10)) {
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> RestAssured.given().contentType(ContentType.JSON).header("Idempotency-Key", "place-2")
+                        .body(requestBody).post("/orders").then().statusCode(201).extract().<Integer>path("data.id")));
+            }
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (Future<Integer> future : futures) {
+            ids.add(future.get());
+        }
+        assertEquals(1, ids.size());
+
+        RestAssured.get("/orders?orderNumber=ORD-IDEMPOTENT").then().statusCode(200).body("data.content", hasSize(2));
+
+        // the same key with another request is refused
+        RestAssured.given().contentType(ContentType.JSON).header("Idempotency-Key", "place-1")
+                .body(requestBody.replace("\"quantity\": 1", "\"quantity\": 2"))
+                .post("/orders")
+                .then()
+                .statusCode(422);
+    }
+
+    @Test
+    void shouldAnswerConditionalGetsFromTheOrderVersion() {
+        String requestBody = """
+                { "orderNumber": "ORD-ETAG", "skuCode": "SKU-ETAG", "price": 1, "quantity": 1 }
+            """;
+        Integer orderId = RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders")
+                .then().statusCode(201).extract().path("data.id");
+
+        String eTag = RestAssured.get("/orders/" + orderId).then().statusCode(200).extract().header("ETag");
+        RestAssured.given().header("If-None-Match", eTag).get("/orders/" + orderId)
+                .then()
+                .statusCode(304)
+                .body(emptyString());
+
+        // any write bumps the version, so the old tag no longer matches
+        RestAssured.given().post("/orders/" + orderId + "/cancel").then().statusCode(200);
+        RestAssured.given().header("If-None-Match", eTag).get("/orders/" + orderId)
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(eTag)))
+                .body("data.orderStatus", equalTo("CANCELED"));
+    }
+
+    @Test
+    void shouldExposeHotPathMetricsInPrometheusFormat() {
+        String requestBody = """
+                { "orderNumber": "ORD-METRICS", "skuCode": "SKU-METRICS", "price": 1, "quantity": 1 }
+            """;
+        RestAssured.given().contentType(ContentType.JSON).body(requestBody).post("/orders").then().statusCode(201);
+
+        RestAssured.get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .body(containsString("orders_service_seconds_count{class=\"OrderService\",method=\"placeAnOrder\",outcome=\"success\""))
+                .body(containsString("orders_service_seconds_bucket{"))
+                .body(containsString("orders_service_seconds{class=\"OrderService\",method=\"placeAnOrder\",outcome=\"success\",quantile=\"0.99\""))
+                .body(containsString("orders_mapper_seconds_count{"))
+                .body(containsString("spring_data_repository_invocations_seconds_count{"))
+                .body(containsString("hikaricp_connections_active{"))
+                .body(containsString("hikaricp_connections_acquire_seconds"));
+    }
+
+    @Test
+    void shouldCompressLargeListingsAndAnswerCborWhenAsked() throws Exception {
+        String item = """
+                { "orderNumber": "ORD-COMPRESSION", "skuCode": "SKU-COMPRESSION", "price": 12.50, "quantity": 1 }
+            """;
+        String batch = "[" + String.join(",", Collections.nCopies(100, item)) + "]";
+        RestAssured.given().contentType(ContentType.JSON).body(batch).post("/orders/batch").then().statusCode(201);
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI listing = URI.create("http://localhost:" + port + "/orders?skuCode=SKU-COMPRESSION&size=100");
+
+        HttpResponse<byte[]> gzipped = client.send(HttpRequest.newBuilder(listing).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, gzipped.statusCode());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+        byte[] json;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            json = gzip.readAllBytes();
+        }
+        assertTrue(gzipped.body().length * 4 < json.length, "a listing should compress well");
+
+        // below server.compression.min-response-size the body is sent as is
+        HttpResponse<byte[]> small = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/orders?skuCode=SKU-COMPRESSION&size=1"))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertTrue(small.headers().firstValue("Content-Encoding").isEmpty());
+
+        HttpResponse<byte[]> cbor = client.send(HttpRequest.newBuilder(listing).header("Accept", "application/cbor").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, cbor.statusCode());
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElse(null));
+        assertTrue(cbor.body().length < json.length, "CBOR should be smaller than JSON");
+        JsonNode page = CBORMapper.builder().build().readTree(cbor.body());
+        assertEquals(100, page.get("data").get("content").size());
+        assertEquals(0, new BigDecimal("12.50").compareTo(page.get("data").get("content").get(0).get("price").decimalValue()));
+    }
+
+    @Test
+    void shouldPublishOrderEventsThroughTheOutbox() throws InterruptedException {
+        Integer orderId = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                          "orderNumber": "ORD-EVENT",
+                          "skuCode": "SKU-EVENT",
+                          "price": 1,
+                          "quantity": 1
+                        }
+                    """)
+                .post("/orders")
+                .then()
+                .statusCode(201)
+                .extract().path("data.id");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline && orderEventSink.getEvents().stream()
+                .noneMatch(event -> orderId.equals(event.orderId()) && event.eventType() == OrderEventType.ORDER_PLACED)) {
+            Thread.sleep(100);
+        }
+
+        assertTrue(orderEventSink.getEvents().stream()
+                .anyMatch(event -> orderId.equals(event.orderId()) && event.payload().contains("ORD-EVENT")),
+                "the placed order should be published by the outbox relay");
+    }
 }
@@ -0,0 +1,38 @@
+package com.majjid.microservices.order;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the SQL Hibernate sends while {@link #record(Runnable)} runs, so a test can EXPLAIN the statements
+ * the repositories really generate (hibernate.session_factory.statement_inspector).
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> RECORDED = new CopyOnWriteArrayList<>();
+    private static volatile boolean recording;
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            RECORDED.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * @return the statements sent while {@code action} ran, in order
+     */
+    static synchronized List<String> record(Runnable action) {
+        RECORDED.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(RECORDED);
+    }
+}
@@ -0,0 +1,146 @@
+package com.majjid.microservices.order;
+
+import com.majjid.microservices.loadtest.LoadDriver;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Database round trips per request of a read / update mix on a working set of orders, with and without
+ * the second-level and query cache : 80% GET /orders/{id}, 10% GET /orders?skuCode=, 10% PUT /orders/{id}.
+ * The round trips are the JDBC statements counted by Hibernate's statistics once the working set is warm.
+ * Each mode gets its own application context and MySQL container.
+ * Run with {@code ./mvnw test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+class SecondLevelCacheBenchmark {
+
+    private static final int ORDERS = 1000;
+    private static final int SKUS = 20;
+    private static final int CONCURRENCY = 32;
+    private static final Duration DURATION = Duration.ofSeconds(30);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder().executor(Runnable::run).build();
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    static double statementsPerRequest(String name, int port, EntityManagerFactory entityManagerFactory) throws Exception {
+        String baseUrl = "http://localhost:" + port;
+        int[] ids = new int[ORDERS];
+        for (int sku = 0; sku < SKUS; sku++) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/inventory/SKU-CACHE-" + sku))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{ \"quantity\": 1000000 }")));
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            String body = send(HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(order(i % SKUS))));
+            Matcher matcher = ID.matcher(body);
+            assertThat(matcher.find()).isTrue();
+            ids[i] = Integer.parseInt(matcher.group(1));
+        }
+
+        // one pass over the working set before counting
+        for (int id : ids) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/orders/" + id)).GET());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AtomicLong requests = new AtomicLong();
+        LoadDriver.Result result = LoadDriver.run(name, CONCURRENCY, Duration.ZERO, DURATION, () -> {
+            requests.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int index = random.nextInt(ORDERS);
+            int draw = random.nextInt(100);
+            HttpRequest.Builder request;
+            if (draw < 80) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders/" + ids[index])).GET();
+            } else if (draw < 90) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders?skuCode=SKU-CACHE-" + random.nextInt(SKUS) + "&size=20")).GET();
+            } else {
+                // same sku and quantity, only the price changes : no stock is moved
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders/" + ids[index]))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(order(index % SKUS).replace("10.50", random.nextInt(10, 99) + ".50")));
+            }
+            return CLIENT.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        });
+
+        double statementsPerRequest = (double) statistics.getPrepareStatementCount() / requests.get();
+        System.out.println(result);
+        System.out.printf("%-40s %6.2f statements/request  L2 hits %d misses %d  query cache hits %d misses %d%n", name,
+                statementsPerRequest, statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        return statementsPerRequest;
+    }
+
+    private static String order(int sku) {
+        return """
+                { "orderNumber": "ORD-CACHE", "skuCode": "SKU-CACHE-%d", "price": 10.50, "quantity": 1 }
+                """.formatted(sku);
+    }
+
+    private static String send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isBetween(200, 299);
+        return response.body();
+    }
+
+    @Nested
+    @Import(TestcontainersConfiguration.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+            })
+    class WithoutCache {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Test
+        void readUpdateMix() throws Exception {
+            assertThat(statementsPerRequest("read/update mix (no L2 cache)", port, entityManagerFactory)).isPositive();
+        }
+    }
+
+    @Nested
+    @Import(TestcontainersConfiguration.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    class WithCache {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Test
+        void readUpdateMix() throws Exception {
+            assertThat(statementsPerRequest("read/update mix (L2 + query cache)", port, entityManagerFactory)).isPositive();
+        }
+    }
+}
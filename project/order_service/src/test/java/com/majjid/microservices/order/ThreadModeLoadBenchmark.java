@@ -0,0 +1,77 @@
+package com.majjid.microservices.order;
+
+import com.majjid.microservices.loadtest.LoadDriver;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and tail latency of POST /orders on platform vs virtual request threads.
+ * Each mode gets its own application context and MySQL container.
+ * Run with {@code ./mvnw test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+class ThreadModeLoadBenchmark {
+
+    private static final int CONCURRENCY = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration DURATION = Duration.ofSeconds(30);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder().executor(Runnable::run).build();
+
+    private static final String ORDER = """
+            { "orderNumber": "ORD-LOAD", "skuCode": "SKU-LOAD", "price": 10.50, "quantity": 1 }
+            """;
+
+    static LoadDriver.Result placeOrders(String name, int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ORDER))
+                .build();
+        LoadDriver.Result result = LoadDriver.run(name, CONCURRENCY, WARMUP, DURATION,
+                () -> CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        System.out.println(result);
+        return result;
+    }
+
+    @Nested
+    @Import(TestcontainersConfiguration.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void placeOrders() throws Exception {
+            assertThat(ThreadModeLoadBenchmark.placeOrders("POST /orders (platform threads)", port).requests()).isPositive();
+        }
+    }
+
+    @Nested
+    @Import(TestcontainersConfiguration.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void placeOrders() throws Exception {
+            assertThat(ThreadModeLoadBenchmark.placeOrders("POST /orders (virtual threads)", port).requests()).isPositive();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.majjid.microservices.order;
+
+import com.majjid.microservices.loadtest.ProfileReplay;
+import com.majjid.microservices.loadtest.TrafficProfile;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the {@link TrafficProfile traffic profiles} of the order service against a MySQL container
+ * and fails the build when a run breaks its budget. Every run is appended to {@code target/load-results.ndjson}.
+ * <p>
+ * Run with {@code ./mvnw test -Pload-tests}, the {@link ProfileReplay loadtest options} pick the profiles
+ * ({@code -Dloadtest.profiles=checkout-burst}), their duration and a looser budget on a slower machine.
+ */
+@Tag("loadtest")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "orders.outbox.file.path=target/load-order-events.ndjson")
+class TrafficProfileLoadTest {
+
+    private static final int SKUS = 20;
+    private static final int ORDERS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    static Stream<String> profiles() {
+        return ProfileReplay.profiles("checkout-burst,bulk-placement");
+    }
+
+    @ParameterizedTest
+    @MethodSource("profiles")
+    void replay(String profileName) throws Exception {
+        List<String> breaches = ProfileReplay.replay(profileName, "http://localhost:" + port, seed());
+
+        assertThat(breaches).as("%s is over its budget", profileName).isEmpty();
+    }
+
+    /**
+     * Stock for every sku the profiles order and a set of orders to read back.
+     */
+    private Map<String, List<String>> seed() {
+        List<String> skus = new ArrayList<>(SKUS);
+        for (int i = 0; i < SKUS; i++) {
+            String sku = "SKU-LOAD-" + i;
+            RestAssured.given().port(port).contentType(ContentType.JSON).body("{ \"quantity\": 1000000000 }")
+                    .put("/inventory/" + sku).then().statusCode(200);
+            skus.add(sku);
+        }
+        List<String> orderIds = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Integer orderId = RestAssured.given().port(port).contentType(ContentType.JSON)
+                    .body("""
+                            { "orderNumber": "ORD-LOAD-SEED-%d", "skuCode": "%s", "price": 10.50, "quantity": 1 }
+                            """.formatted(i, skus.get(i % SKUS)))
+                    .post("/orders")
+                    .then().statusCode(201)
+                    .extract().path("data.id");
+            orderIds.add(orderId.toString());
+        }
+        return Map.of("sku", skus, "orderId", orderIds);
+    }
+}
@@ -0,0 +1,64 @@
+package com.majjid.microservices.order;
+
+import com.majjid.microservices.loadtest.StandInService;
+import com.majjid.microservices.loadtest.TrafficProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The profiles replayed by {@link TrafficProfileLoadTest}, checked in every build against a local stand-in
+ * of the service : they parse and every placeholder has a seed.
+ */
+class TrafficProfileTest {
+
+    private static final Map<String, List<String>> SEEDS = Map.of("sku", List.of("SKU-1", "SKU-2"), "orderId", List.of("1", "2"));
+
+    private StandInService service;
+
+    @BeforeEach
+    void startService() throws IOException {
+        service = StandInService.start();
+    }
+
+    @AfterEach
+    void stopService() {
+        service.close();
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.majjid.microservices.order.TrafficProfileLoadTest#profiles")
+    void everyProfileReplaysWithTheSeedsOfTheLoadTest(String profileName) throws Exception {
+        TrafficProfile profile = TrafficProfile.load(profileName);
+        assertThat(profile.name()).isEqualTo(profileName);
+        assertThat(profile.concurrency()).isPositive();
+        assertThat(profile.requests()).allSatisfy(request -> assertThat(request.weight()).isPositive());
+
+        var sender = profile.sender(HttpClient.newHttpClient(), service.baseUrl(), SEEDS);
+        for (int i = 0; i < 50; i++) {
+            assertThat(sender.call()).isEqualTo(200);
+        }
+
+        assertThat(service.received()).hasSize(50).noneMatch(request -> request.contains("{sku}") || request.contains("{orderId}") || request.contains("{n}"));
+    }
+
+    @Test
+    void bulkPlacementPostsBatchesOf500Orders() throws Exception {
+        TrafficProfile profile = TrafficProfile.load("bulk-placement");
+
+        profile.sender(HttpClient.newHttpClient(), service.baseUrl(), SEEDS).call();
+
+        String request = service.received().remove();
+        assertThat(request).startsWith("POST /orders/batch [{").endsWith("}]");
+        assertThat(request.split("\"orderNumber\"")).hasSize(501);
+    }
+}
@@ -0,0 +1,109 @@
+package com.majjid.microservices.order.benchmark;
+
+import com.majjid.microservices.commons.web.ErrorBodies;
+import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.config.CustomAppException;
+import com.majjid.microservices.order.mappers.CustomMapper;
+import com.majjid.microservices.order.mappers.CustomMapperImpl;
+import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of answering GET /orders/{id} for a missing id, before and after the cheap exception path,
+ * next to a found order. The exception is thrown {@code depth} frames deep, about what it crosses
+ * between the service and the servlet in a real request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"100"})
+    private int depth;
+
+    private final CustomMapper mapper = new CustomMapperImpl();
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private Order order;
+    private int orderId;
+
+    /**
+     * CustomAppException as it was : a regular exception filling its stack trace.
+     */
+    static final class StackfulAppException extends RuntimeException {
+        private final HttpStatus status;
+
+        StackfulAppException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        order = new Order();
+        order.setId(42);
+        order.setOrderNumber("ORD-2025-100042");
+        order.setSkuCode("SKU-42");
+        order.setOrderStatus(OrderStatus.UNDER_PROCESS);
+        order.setPrice(new BigDecimal("19.99"));
+        order.setQuantity(2);
+        order.setVersion(0L);
+    }
+
+    @Benchmark
+    public byte[] notFoundBefore() {
+        int id = ++orderId;
+        try {
+            throwAt(depth, () -> {
+                throw new StackfulAppException(HttpStatus.NOT_FOUND, CustomAppException.buildNotFoundMsg(id, "order"));
+            });
+            return null;
+        } catch (StackfulAppException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("status", e.status.value());
+            error.put("cause", e.status.getReasonPhrase());
+            error.put("success", false);
+            return objectMapper.writeValueAsBytes(error);
+        }
+    }
+
+    @Benchmark
+    public byte[] notFoundAfter() {
+        int id = ++orderId;
+        try {
+            throwAt(depth, () -> {
+                throw new CustomAppException(HttpStatus.NOT_FOUND, CustomAppException.buildNotFoundMsg(id, "order"));
+            });
+            return null;
+        } catch (CustomAppException e) {
+            return ErrorBodies.of(e.getStatus(), e.getMessage());
+        }
+    }
+
+    @Benchmark
+    public byte[] found() {
+        return objectMapper.writeValueAsBytes(ResponseDto.retrieved(mapper.toDto(order), "order"));
+    }
+
+    private static void throwAt(int depth, Runnable thrower) {
+        if (depth == 0) {
+            thrower.run();
+            return;
+        }
+        throwAt(depth - 1, thrower);
+    }
+}
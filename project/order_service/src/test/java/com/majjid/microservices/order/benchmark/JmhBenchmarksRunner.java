@@ -0,0 +1,30 @@
+package com.majjid.microservices.order.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every JMH benchmark of this package from {@code ./mvnw test -Pbenchmarks}
+ * and keeps the results in {@code target/jmh-results.json} to compare releases.
+ */
+@Tag("benchmark")
+class JmhBenchmarksRunner {
+
+    @Test
+    void runJmhBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(getClass().getPackageName() + "\\..*Benchmark")
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-results.json")
+                .shouldFailOnError(true)
+                .build();
+
+        assertThat(new Runner(options).run()).isNotEmpty();
+    }
+}
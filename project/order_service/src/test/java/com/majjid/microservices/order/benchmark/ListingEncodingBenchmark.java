@@ -0,0 +1,95 @@
+package com.majjid.microservices.order.benchmark;
+
+import com.majjid.microservices.order.Dto.CursorPageDto;
+import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.Dto.order.OrderResponseDto;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A 10k orders listing in each representation GET /orders can answer with : JSON or CBOR (Accept),
+ * sent as is or gzip compressed (Accept-Encoding). {@code write} is the service side, {@code read} the consumer side.
+ * The body sizes are printed once per combination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingEncodingBenchmark {
+
+    private static final TypeReference<ResponseDto<CursorPageDto<OrderResponseDto, Integer>>> LISTING =
+            new TypeReference<>() {
+            };
+
+    @Param({"10000"})
+    private int size;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ObjectMapper objectMapper;
+    private ResponseDto<CursorPageDto<OrderResponseDto, Integer>> listing;
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        objectMapper = "cbor".equals(format) ? CBORMapper.builder().build() : JsonMapper.builder().build();
+        List<OrderResponseDto> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(new OrderResponseDto(i + 1, "ORD-2025-" + (100000 + i), "SKU-" + (i % 500),
+                    new BigDecimal("19.99").add(BigDecimal.valueOf(i, 2)), 1 + i % 5, OrderStatus.UNDER_PROCESS, 0L));
+        }
+        listing = ResponseDto.listed(new CursorPageDto<>(orders, size, true, size), "orders");
+        body = write();
+        System.out.printf("%n%s + %s : %d bytes for %d orders%n", format, encoding, body.length, size);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        byte[] encoded = objectMapper.writeValueAsBytes(listing);
+        return "gzip".equals(encoding) ? gzip(encoded) : encoded;
+    }
+
+    @Benchmark
+    public ResponseDto<CursorPageDto<OrderResponseDto, Integer>> read() {
+        return objectMapper.readValue("gzip".equals(encoding) ? gunzip(body) : body, LISTING);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
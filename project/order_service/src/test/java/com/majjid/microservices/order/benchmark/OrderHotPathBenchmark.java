@@ -0,0 +1,86 @@
+package com.majjid.microservices.order.benchmark;
+
+import com.majjid.microservices.order.Dto.ResponseDto;
+import com.majjid.microservices.order.Dto.order.OrderResponseDto;
+import com.majjid.microservices.order.mappers.CustomMapper;
+import com.majjid.microservices.order.mappers.CustomMapperImpl;
+import com.majjid.microservices.order.model.Order;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the pieces every order response goes through : MapStruct mapping,
+ * the ResponseDto envelope and Jackson serialization (BigDecimal prices included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderHotPathBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final CustomMapper mapper = new CustomMapperImpl();
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private List<Order> orders;
+    private List<OrderResponseDto> dtos;
+    private ResponseDto<List<OrderResponseDto>> listed;
+
+    @Setup
+    public void setup() {
+        orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Order order = new Order();
+            order.setId(i + 1);
+            order.setOrderNumber("ORD-2025-" + (100000 + i));
+            order.setSkuCode("SKU-" + (i % 500));
+            order.setOrderStatus(OrderStatus.UNDER_PROCESS);
+            order.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(i, 2)));
+            order.setQuantity(1 + i % 5);
+            orders.add(order);
+        }
+        dtos = orders.stream().map(mapper::toDto).toList();
+        listed = ResponseDto.listed(dtos, "orders");
+    }
+
+    @Benchmark
+    public void mapToDto(Blackhole blackhole) {
+        for (Order order : orders) {
+            blackhole.consume(mapper.toDto(order));
+        }
+    }
+
+    @Benchmark
+    public ResponseDto<List<OrderResponseDto>> buildListedEnvelope() {
+        return ResponseDto.listed(dtos, "orders");
+    }
+
+    @Benchmark
+    public void buildRetrievedEnvelopes(Blackhole blackhole) {
+        for (OrderResponseDto dto : dtos) {
+            blackhole.consume(ResponseDto.retrieved(dto, "order"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeListing() {
+        return objectMapper.writeValueAsBytes(listed);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeListing() {
+        return objectMapper.writeValueAsBytes(ResponseDto.listed(orders.stream().map(mapper::toDto).toList(), "orders"));
+    }
+}
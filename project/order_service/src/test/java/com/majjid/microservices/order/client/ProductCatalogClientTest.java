@@ -0,0 +1,173 @@
+package com.majjid.microservices.order.client;
+
+import com.majjid.microservices.order.config.CustomAppException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the client against a local stand-in of product-service {@code GET /products?ids=}.
+ */
+class ProductCatalogClientTest {
+
+    private final Map<String, BigDecimal> catalog = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicBoolean refusing = new AtomicBoolean();
+    private final AtomicInteger largestRequest = new AtomicInteger();
+
+    private HttpServer productService;
+    private ProductCatalogClient client;
+
+    @BeforeEach
+    void startProductService() throws IOException {
+        productService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        productService.createContext("/products", this::handleProducts);
+        productService.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        productService.start();
+
+        ProductCatalogProperties properties = new ProductCatalogProperties(
+                "http://localhost:" + productService.getAddress().getPort(),
+                Duration.ofMillis(20), 100, Duration.ofSeconds(2), Duration.ofMinutes(1), 1_000,
+                3, Duration.ofMinutes(1));
+        client = new ProductCatalogClient(RestClient.builder(), properties);
+    }
+
+    @AfterEach
+    void stopProductService() {
+        client.shutdown();
+        productService.stop(0);
+    }
+
+    @Test
+    void concurrentLookupsAreCoalescedIntoOneRequest() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            catalog.put("P-" + i, new BigDecimal(i + ".50"));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<BigDecimal>>> lookups = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                String productId = "P-" + i;
+                lookups.add(callers.submit(() -> {
+                    start.await();
+                    return client.getPrice(productId);
+                }));
+            }
+            start.countDown();
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(lookups.get(i).get()).contains(new BigDecimal(i + ".50"));
+        }
+        assertThat(requests.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void cachedPricesAndMissingProductsDoNotHitProductServiceAgain() {
+        catalog.put("P-1", new BigDecimal("10.00"));
+
+        assertThat(client.getPrices(List.of("P-1", "UNKNOWN")))
+                .containsEntry("P-1", Optional.of(new BigDecimal("10.00")))
+                .containsEntry("UNKNOWN", Optional.empty());
+        assertThat(client.getPrice("P-1")).contains(new BigDecimal("10.00"));
+        assertThat(client.getPrice("UNKNOWN")).isEmpty();
+
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailuresAndFailsFast() {
+        failing.set(true);
+
+        for (int i = 0; i < 3; i++) {
+            String productId = "P-" + i;
+            assertThatThrownBy(() -> client.getPrice(productId)).isInstanceOf(CustomAppException.class);
+        }
+        int requestsWhenOpened = requests.get();
+
+        assertThatThrownBy(() -> client.getPrice("P-other"))
+                .isInstanceOf(CustomAppException.class)
+                .hasMessageContaining("circuit open");
+        assertThat(requests.get()).isEqualTo(requestsWhenOpened);
+    }
+
+    @Test
+    void aLargeLookupIsSplitIntoRequestsOfAtMostMaxBatchSizeIds() {
+        List<String> productIds = new ArrayList<>();
+        for (int i = 0; i < 1_050; i++) {
+            catalog.put("P-" + i, BigDecimal.ONE);
+            productIds.add("P-" + i);
+        }
+
+        assertThat(client.getPrices(productIds)).hasSize(1_050).allSatisfy((productId, price) -> assertThat(price).contains(BigDecimal.ONE));
+
+        assertThat(largestRequest.get()).isLessThanOrEqualTo(100);
+        assertThat(requests.get()).isGreaterThanOrEqualTo(11);
+    }
+
+    @Test
+    void refusedLookupsDoNotOpenTheCircuit() {
+        refusing.set(true);
+        for (int i = 0; i < 5; i++) {
+            String productId = "P-" + i;
+            assertThatThrownBy(() -> client.getPrice(productId)).isInstanceOf(CustomAppException.class);
+        }
+
+        refusing.set(false);
+        catalog.put("P-other", BigDecimal.TEN);
+        assertThat(client.getPrice("P-other")).contains(BigDecimal.TEN);
+    }
+
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (failing.get() || refusing.get()) {
+            exchange.sendResponseHeaders(failing.get() ? 500 : 400, -1);
+            exchange.close();
+            return;
+        }
+
+        String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+        String[] productIds = query.substring("ids=".length()).split(",");
+        largestRequest.accumulateAndGet(productIds.length, Math::max);
+        List<String> products = new ArrayList<>();
+        for (String productId : productIds) {
+            BigDecimal price = catalog.get(productId);
+            if (price != null) {
+                products.add("{\"id\":\"" + productId + "\",\"name\":\"" + productId + "\",\"description\":null,\"price\":" + price + "}");
+            }
+        }
+
+        byte[] body = ("{\"data\":[" + String.join(",", products) + "],\"message\":\"The products listed with success\",\"status\":\"OK\",\"success\":true}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
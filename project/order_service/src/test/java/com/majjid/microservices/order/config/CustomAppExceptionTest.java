@@ -0,0 +1,19 @@
+package com.majjid.microservices.order.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomAppExceptionTest {
+
+    @Test
+    void appExceptionsShouldNotCaptureAStackTrace() {
+        assertThat(new CustomAppException(HttpStatus.NOT_FOUND, "missing").getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void shouldBuildTheNotFoundMessage() {
+        assertThat(CustomAppException.buildNotFoundMsg(7, "order")).isEqualTo("The order with id 7 does not exist");
+    }
+}
@@ -0,0 +1,55 @@
+package com.majjid.microservices.order.config;
+
+import com.majjid.microservices.order.Dto.order.OrderCreateRequestDto;
+import com.majjid.microservices.order.Dto.order.OrderUpdateRequestDto;
+import com.majjid.microservices.order.mappers.CustomMapper;
+import com.majjid.microservices.order.mappers.CustomMapperImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CustomMapper timedMapper() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        ProxyFactory proxyFactory = new ProxyFactory(new CustomMapperImpl());
+        proxyFactory.addAdvisor(MetricsConfig.mapperTimingAdvisor(beanFactory.getBeanProvider(MeterRegistry.class)));
+        return (CustomMapper) proxyFactory.getProxy();
+    }
+
+    @Test
+    void shouldTimeEveryCallByClassMethodAndOutcome() {
+        CustomMapper mapper = timedMapper();
+
+        for (int i = 0; i < 3; i++) {
+            mapper.toObject(new OrderCreateRequestDto("ORD-1", "SKU-1", BigDecimal.ONE, 1));
+        }
+
+        Timer timer = meterRegistry.find("orders.mapper")
+                .tags("class", "CustomMapperImpl", "method", "toObject", "outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldTimeFailedCallsSeparately() {
+        CustomMapper mapper = timedMapper();
+
+        assertThatThrownBy(() -> mapper.updateObject(new OrderUpdateRequestDto("SKU", BigDecimal.ONE, 1), null))
+                .isInstanceOf(NullPointerException.class);
+
+        assertThat(meterRegistry.find("orders.mapper").tags("method", "updateObject", "outcome", "error").timer().count()).isEqualTo(1);
+    }
+}
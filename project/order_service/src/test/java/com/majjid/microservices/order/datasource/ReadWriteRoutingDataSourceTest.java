@@ -0,0 +1,131 @@
+package com.majjid.microservices.order.datasource;
+
+import org.hibernate.CacheMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final CountingDataSource primary = new CountingDataSource();
+    private final CountingDataSource replica = new CountingDataSource();
+    private final ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, replica);
+    private final ReadRoutingInterceptor interceptor = new ReadRoutingInterceptor(
+            new ReadReplicaProperties(null, null, null, null, Duration.ofMinutes(1), "X-Client-Id", 100));
+
+    {
+        // known up front, the proxy would otherwise borrow a connection to read them
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    @AfterEach
+    void endRequest() {
+        interceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), null, null);
+    }
+
+    @Test
+    void readOnlyTransactionsOfAReadRequestGoToTheReplica() {
+        startRequest("GET", "client-1");
+
+        query(true);
+
+        assertThat(replica.connections).hasValue(1);
+        assertThat(primary.connections).hasValue(0);
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        startRequest("GET", "client-1");
+
+        query(false);
+
+        assertThat(primary.connections).hasValue(1);
+        assertThat(replica.connections).hasValue(0);
+    }
+
+    @Test
+    void threadsOutsideARequestReadFromThePrimary() {
+        query(true);
+
+        assertThat(primary.connections).hasValue(1);
+        assertThat(replica.connections).hasValue(0);
+    }
+
+    @Test
+    void aClientReadsItsOwnWritesFromThePrimary() {
+        startRequest("POST", "client-1");
+        endRequest();
+
+        startRequest("GET", "client-1");
+        query(true);
+        assertThat(primary.connections).hasValue(1);
+
+        startRequest("GET", "client-2");
+        query(true);
+        assertThat(replica.connections).hasValue(1);
+    }
+
+    @Test
+    void transactionsRoutedToTheReplicaNeverFillTheCaches() {
+        startRequest("GET", "client-1");
+        assertThat(ReplicaCacheModeJpaDialect.cacheMode(true)).isEqualTo(CacheMode.GET);
+        assertThat(ReplicaCacheModeJpaDialect.cacheMode(false)).isEqualTo(CacheMode.NORMAL);
+        endRequest();
+
+        // the writer's own reads are on the primary, what they load may be cached
+        startRequest("POST", "client-1");
+        assertThat(ReplicaCacheModeJpaDialect.cacheMode(true)).isEqualTo(CacheMode.NORMAL);
+        endRequest();
+        startRequest("GET", "client-1");
+        assertThat(ReplicaCacheModeJpaDialect.cacheMode(true)).isEqualTo(CacheMode.NORMAL);
+    }
+
+    private void startRequest(String method, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/orders");
+        request.addHeader("X-Client-Id", client);
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    private void query(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.executeWithoutResult(status -> new JdbcTemplate(dataSource).execute("select 1"));
+    }
+
+    private static final class CountingDataSource extends AbstractDataSource {
+        private final AtomicInteger connections = new AtomicInteger();
+
+        @Override
+        public Connection getConnection() {
+            connections.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getAutoCommit", "isReadOnly", "isClosed" -> false;
+                        case "getTransactionIsolation" -> Connection.TRANSACTION_READ_COMMITTED;
+                        case "createStatement" -> Proxy.newProxyInstance(getClass().getClassLoader(),
+                                new Class<?>[]{java.sql.Statement.class}, (statement, call, callArgs) ->
+                                        call.getReturnType() == boolean.class ? false
+                                                : call.getReturnType() == int.class ? 0 : null);
+                        default -> null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
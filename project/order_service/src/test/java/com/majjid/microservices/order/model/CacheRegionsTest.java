@@ -0,0 +1,61 @@
+package com.majjid.microservices.order.model;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.majjid.microservices.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The regions of hibernate-jcache.conf, loaded the way Hibernate does (the resource url of
+ * {@code hibernate.javax.cache.uri} handed to the Caffeine provider).
+ */
+class CacheRegionsTest {
+
+    private final CacheManager cacheManager;
+
+    CacheRegionsTest() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        URI uri = classLoader.getResource("hibernate-jcache.conf").toURI();
+        cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager(uri, classLoader);
+    }
+
+    @AfterEach
+    void close() {
+        cacheManager.close();
+    }
+
+    @Test
+    void theEntityAndQueryRegionsAreBounded() {
+        assertThat(region(Order.CACHE_REGION).policy().eviction()).hasValueSatisfying(eviction ->
+                assertThat(eviction.getMaximum()).isEqualTo(100_000));
+        assertThat(region(Order.CACHE_REGION).policy().expireAfterWrite()).hasValueSatisfying(expiration ->
+                assertThat(expiration.getExpiresAfter()).isEqualTo(Duration.ofMinutes(10)));
+
+        assertThat(region(OrderRepository.QUERY_CACHE_REGION).policy().eviction()).hasValueSatisfying(eviction ->
+                assertThat(eviction.getMaximum()).isEqualTo(10_000));
+        assertThat(region("default-query-results-region").policy().eviction()).isPresent();
+    }
+
+    @Test
+    void theUpdateTimestampsAreNeverEvicted() {
+        Cache<?, ?> timestamps = region("default-update-timestamps-region");
+
+        assertThat(timestamps.policy().eviction()).isEmpty();
+        assertThat(timestamps.policy().expireAfterWrite()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> region(String name) {
+        javax.cache.Cache<Object, Object> cache = cacheManager.getCache(name);
+        assertThat(cache).as(name).isNotNull();
+        return cache.unwrap(Cache.class);
+    }
+}
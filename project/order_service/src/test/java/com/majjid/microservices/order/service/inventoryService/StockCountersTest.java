@@ -0,0 +1,81 @@
+package com.majjid.microservices.order.service.inventoryService;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockCountersTest {
+
+    @Test
+    void concurrentReservationsOnOneHotSkuNeverOversell() throws InterruptedException {
+        long stock = 1_000;
+        int reservations = 20_000;
+        StockCounters stockCounters = new StockCounters(sku -> Optional.of(stock));
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(64)) {
+            for (int i = 0; i < reservations; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    if (stockCounters.reserve("HOT-SKU", 1)) {
+                        accepted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(accepted.get()).isEqualTo(stock);
+        assertThat(stockCounters.available("HOT-SKU")).contains(0L);
+    }
+
+    @Test
+    void releasedStockCanBeReservedAgain() {
+        StockCounters stockCounters = new StockCounters(sku -> Optional.of(2L));
+
+        assertThat(stockCounters.reserve("SKU", 2)).isTrue();
+        assertThat(stockCounters.reserve("SKU", 1)).isFalse();
+        stockCounters.release("SKU", 2);
+
+        assertThat(stockCounters.reserve("SKU", 1)).isTrue();
+        assertThat(stockCounters.available("SKU")).contains(1L);
+    }
+
+    @Test
+    void untrackedSkusAreLoadedOnceAndNeverLimited() {
+        AtomicInteger loads = new AtomicInteger();
+        StockCounters stockCounters = new StockCounters(sku -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(stockCounters.reserve("FREE-SKU", 1_000)).isTrue();
+        assertThat(stockCounters.reserve("FREE-SKU", 1_000)).isTrue();
+        assertThat(stockCounters.available("FREE-SKU")).isEmpty();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(stockCounters.drainDirty()).isEmpty();
+    }
+
+    @Test
+    void drainReturnsEachChangedSkuOnce() {
+        StockCounters stockCounters = new StockCounters(sku -> Optional.of(10L));
+        stockCounters.reserve("A", 3);
+        stockCounters.reserve("A", 2);
+        stockCounters.set("B", 7);
+
+        assertThat(stockCounters.drainDirty()).isEqualTo(Map.of("A", 5L, "B", 7L));
+        assertThat(stockCounters.drainDirty()).isEmpty();
+    }
+}
@@ -0,0 +1,86 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import com.majjid.microservices.order.Dto.order.OrderResponseDto;
+import com.majjid.microservices.order.model.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void ordersNotCommittedBeforeACrashAreRecovered() throws Exception {
+        OrderJournal journal = new OrderJournal(JsonMapper.builder().build(), directory, 1024, true);
+        List<Future<OrderJournal.Segment>> appends = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= 100; i++) {
+                OrderResponseDto order = order(i);
+                appends.add(callers.submit(() -> journal.append(order)));
+            }
+        }
+        // the first half is committed, then the process dies without closing the journal
+        for (int i = 0; i < 50; i++) {
+            journal.committed(appends.get(i).get(), 1);
+        }
+
+        List<OrderResponseDto> recovered = new OrderJournal(JsonMapper.builder().build(), directory, 1024, true).recover();
+
+        assertThat(recovered).hasSizeGreaterThanOrEqualTo(50);
+        assertThat(recovered).extracting(OrderResponseDto::id).doesNotHaveDuplicates();
+        assertThat(recovered.getFirst().price()).isEqualByComparingTo("10.50");
+    }
+
+    @Test
+    void segmentsAreDeletedOnceAllTheirOrdersAreCommitted() throws IOException {
+        OrderJournal journal = new OrderJournal(JsonMapper.builder().build(), directory, 256, false);
+        List<OrderJournal.Segment> segments = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            segments.add(journal.append(order(i)));
+        }
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+
+        segments.forEach(segment -> journal.committed(segment, 1));
+        journal.close();
+
+        assertThat(segmentFiles()).isEmpty();
+    }
+
+    @Test
+    void recoveredSegmentsAreDeletedButNotTheNewOnes() throws IOException {
+        new OrderJournal(JsonMapper.builder().build(), directory, 1024, true).append(order(1));
+
+        OrderJournal journal = new OrderJournal(JsonMapper.builder().build(), directory, 1024, true);
+        assertThat(journal.recover()).extracting(OrderResponseDto::id).containsExactly(1L);
+        journal.append(order(2));
+        journal.deleteRecovered();
+
+        assertThat(new OrderJournal(JsonMapper.builder().build(), directory, 1024, true).recover())
+                .extracting(OrderResponseDto::id).containsExactly(2L);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static OrderResponseDto order(int id) {
+        return new OrderResponseDto(id, "ORD-" + id, "SKU-1", new BigDecimal("10.50"), 1, OrderStatus.UNDER_PROCESS, 0L);
+    }
+}
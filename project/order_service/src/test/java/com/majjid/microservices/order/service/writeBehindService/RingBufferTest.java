@@ -0,0 +1,90 @@
+package com.majjid.microservices.order.service.writeBehindService;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferTest {
+
+    @Test
+    void concurrentProducersAndConsumersHandOverEveryElementOnce() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 50_000;
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(1024);
+        Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(producers + 4)) {
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        // full : spin until a consumer makes room
+                        while (!ringBuffer.offer(i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int c = 0; c < 4; c++) {
+                executor.submit(() -> {
+                    start.await();
+                    List<Integer> batch = new ArrayList<>(100);
+                    while (remaining.get() > 0) {
+                        batch.clear();
+                        ringBuffer.drainTo(batch, 100);
+                        for (Integer element : batch) {
+                            if (!consumed.add(element)) {
+                                duplicates.incrementAndGet();
+                            }
+                        }
+                        remaining.addAndGet(-batch.size());
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(duplicates.get()).isZero();
+        assertThat(consumed).hasSize(producers * perProducer);
+        assertThat(ringBuffer.size()).isZero();
+    }
+
+    @Test
+    void aFullBufferRefusesUntilAnElementIsTaken() {
+        RingBuffer<String> ringBuffer = new RingBuffer<>(2);
+
+        assertThat(ringBuffer.offer("a")).isTrue();
+        assertThat(ringBuffer.offer("b")).isTrue();
+        assertThat(ringBuffer.offer("c")).isFalse();
+        assertThat(ringBuffer.poll()).isEqualTo("a");
+        assertThat(ringBuffer.offer("c")).isTrue();
+
+        assertThat(ringBuffer.poll()).isEqualTo("b");
+        assertThat(ringBuffer.poll()).isEqualTo("c");
+        assertThat(ringBuffer.poll()).isNull();
+    }
+
+    @Test
+    void theCapacityMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new RingBuffer<>(1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
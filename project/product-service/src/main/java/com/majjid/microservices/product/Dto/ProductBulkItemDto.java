@@ -0,0 +1,22 @@
+package com.majjid.microservices.product.Dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * One product of a bulk import : upserted by {@code id} when it is present, inserted otherwise.
+ */
+public record ProductBulkItemDto(
+        String id,
+        @NotBlank(message = "Product name is required.")
+        String name,
+        String description,
+        @NotNull(message = "Product price is required.")
+        @Positive(message = "Product price must be positive.")
+        BigDecimal price
+) {
+
+}
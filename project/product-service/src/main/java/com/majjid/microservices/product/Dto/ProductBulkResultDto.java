@@ -0,0 +1,19 @@
+package com.majjid.microservices.product.Dto;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk import, {@code errors} is capped so a bad file can not blow up the response.
+ */
+public record ProductBulkResultDto(
+        long received,
+        long inserted,
+        long upserted,
+        long matched,
+        long modified,
+        long rejected,
+        int chunks,
+        List<String> errors
+) {
+
+}
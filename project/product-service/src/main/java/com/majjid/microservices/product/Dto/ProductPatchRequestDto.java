@@ -0,0 +1,19 @@
+package com.majjid.microservices.product.Dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * Partial update : only the fields sent are changed, a missing (or null) field keeps its value.
+ */
+public record ProductPatchRequestDto(
+        @Pattern(regexp = "(?s).*\\S.*", message = "Product name can not be blank.")
+        String name,
+        String description,
+        @Positive(message = "Product price must be positive.")
+        BigDecimal price
+) {
+
+}
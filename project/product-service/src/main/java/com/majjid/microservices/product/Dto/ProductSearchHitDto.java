@@ -0,0 +1,16 @@
+package com.majjid.microservices.product.Dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A product found by a search, {@code score} is its text relevance (null without search terms).
+ */
+public record ProductSearchHitDto(
+        String id,
+        String name,
+        String description,
+        BigDecimal price,
+        Float score
+) {
+
+}
@@ -0,0 +1,15 @@
+package com.majjid.microservices.product.Dto;
+
+import java.util.List;
+
+/**
+ * One page of a ranked search. Relevance order has no stable cursor, so pages are numbered from 0.
+ */
+public record SearchPageDto<T>(
+        List<T> content,
+        int page,
+        int size,
+        boolean hasNext
+) {
+
+}
@@ -0,0 +1,68 @@
+package com.majjid.microservices.product.config;
+
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductResponseDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ETags of product representations.
+ * Products have no version, so the tag is a hash of the fields, computed from the DTO
+ * and never from the serialized body : a 304 costs neither serialization nor a body.
+ * A page is big enough to be compressed, its tag is weak : Tomcat does not compress a response
+ * carrying a strong ETag, and the gzip and identity bodies of a page are not byte for byte the same.
+ */
+public final class ETags {
+
+    private static final byte SEPARATOR = 0;
+    // 128 bits of the SHA-256 are plenty to tell two states of a representation apart
+    private static final int TAG_BYTES = 16;
+
+    private ETags() {
+    }
+
+    public static String of(ProductResponseDto product) {
+        MessageDigest digest = newDigest();
+        update(digest, product);
+        return toTag(digest);
+    }
+
+    public static String of(CursorPageDto<ProductResponseDto, String> page) {
+        MessageDigest digest = newDigest();
+        for (ProductResponseDto product : page.content()) {
+            update(digest, product);
+        }
+        update(digest, page.nextCursor());
+        update(digest, String.valueOf(page.hasNext()));
+        return "W/" + toTag(digest);
+    }
+
+    private static void update(MessageDigest digest, ProductResponseDto product) {
+        update(digest, product.id());
+        update(digest, product.name());
+        update(digest, product.description());
+        update(digest, product.price() == null ? null : product.price().toString());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(SEPARATOR);
+    }
+
+    private static String toTag(MessageDigest digest) {
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, TAG_BYTES) + "\"";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.majjid.microservices.product.config;
 
+import com.majjid.microservices.commons.web.ErrorBodies;
 import jakarta.servlet.ServletException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -123,15 +125,9 @@ public class GlobalExceptionHandler {
     }
 
 
-    // 🔁 Utility method to build response
-    private ResponseEntity<Map<String, Object>> buildError(HttpStatus status, String message) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("message", message);
-        error.put("status", status.value());
-        error.put("cause", status.getReasonPhrase());
-        error.put("success",false);
-
-        return ResponseEntity.status(status).body(error);
+    // 🔁 Utility method to build response : the body comes from a pre-serialized template of the status
+    private ResponseEntity<byte[]> buildError(HttpStatus status, String message) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(ErrorBodies.of(status, message));
     }
 
 }
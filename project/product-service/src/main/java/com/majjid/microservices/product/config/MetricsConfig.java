@@ -0,0 +1,40 @@
+package com.majjid.microservices.product.config;
+
+import com.majjid.microservices.commons.metrics.LayerTiming;
+import com.majjid.microservices.product.mappers.CustomMapper;
+import com.majjid.microservices.product.service.ProductService.IProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Hot path timers, next to the ones Spring Boot already publishes :
+ * <ul>
+ *     <li>{@code products.service} : every method of IProductService, cache hits included,</li>
+ *     <li>{@code products.mapper} : every MapStruct mapping,</li>
+ *     <li>{@code spring.data.repository.invocations} : every repository call (Spring Data),</li>
+ *     <li>{@code mongodb.driver.commands} and {@code mongodb.driver.pool.*} : commands and connection pool,</li>
+ *     <li>{@code http.server.requests} : the whole request, serialization included.</li>
+ * </ul>
+ * The reactive service is left out : timing a method returning a Mono would only time its assembly.
+ * The timers are advisors applied by the proxy that already carries the caching, outermost.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return LayerTiming.advisor("products.service", meterRegistryProvider, IProductService.class);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor mapperTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return LayerTiming.advisor("products.mapper", meterRegistryProvider, CustomMapper.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.majjid.microservices.product.config;
+
+import com.majjid.microservices.product.model.Product;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+/**
+ * Brings the product documents to the shape the code expects at startup, then creates the indexes declared
+ * on the documents ({@code @Indexed}, {@code @TextIndexed}), so every environment, test containers included,
+ * gets the same data and indexes without enabling auto index creation.
+ * Both steps run once the beans are created and before the web server starts, so no request is served against
+ * string prices or a missing index. They are idempotent : an index that already exists and a price that is already
+ * a decimal are left alone.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexConfig implements SmartInitializingSingleton {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        createIndexes();
+    }
+
+    public void createIndexes() {
+        migrateStringPrices();
+
+        IndexOperations indexOperations = mongoTemplate.indexOps(Product.class);
+        new MongoPersistentEntityIndexResolver(mongoMappingContext)
+                .resolveIndexFor(Product.class)
+                .forEach(indexOperations::createIndex);
+        log.info("Indexes of {} : {}", mongoTemplate.getCollectionName(Product.class), indexOperations.getIndexInfo().size());
+    }
+
+    /**
+     * Prices used to be stored as strings, they are DECIMAL128 now : a string price sorts and compares as text,
+     * so legacy products would be mis-ordered or skipped by the price range filters.
+     * One server side update converts them, a price that is not a number is kept as it is and reported.
+     *
+     * @return the number of products converted
+     */
+    public long migrateStringPrices() {
+        List<Document> toDecimal = List.of(new Document("$set", new Document("price",
+                new Document("$convert", new Document("input", "$price").append("to", "decimal").append("onError", "$price")))));
+        UpdateResult result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .updateMany(Filters.type("price", BsonType.STRING), toDecimal);
+
+        long unconverted = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .countDocuments(Filters.type("price", BsonType.STRING));
+        if (result.getModifiedCount() > 0 || unconverted > 0) {
+            log.info("Prices of {} products converted to decimal, {} left as strings (not a number)", result.getModifiedCount(), unconverted);
+        }
+        return result.getModifiedCount();
+    }
+}
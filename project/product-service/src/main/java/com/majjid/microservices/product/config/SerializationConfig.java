@@ -0,0 +1,26 @@
+package com.majjid.microservices.product.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Representations of the API, chosen with the Accept header :
+ * <ul>
+ *     <li>{@code application/json} : the default,</li>
+ *     <li>{@code application/cbor} : the same documents in binary, for services reading large listings.
+ *     Smaller and cheaper to write and parse : no quoting or escaping, numbers and decimals stay binary.</li>
+ * </ul>
+ * Both go through the compression configured with {@code server.compression.*}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SerializationConfig {
+
+    // the CBORMapper Spring Boot builds, so both representations share the same Jackson configuration
+    @Bean
+    ServerHttpMessageConvertersCustomizer cborServerConverter(CBORMapper cborMapper) {
+        return builder -> builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+    }
+}
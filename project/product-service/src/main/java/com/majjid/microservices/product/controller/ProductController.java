@@ -1,14 +1,24 @@
 package com.majjid.microservices.product.controller;
 
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductBulkResultDto;
+import com.majjid.microservices.product.Dto.ProductPatchRequestDto;
 import com.majjid.microservices.product.Dto.ProductRequestDto;
 import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ProductSearchHitDto;
 import com.majjid.microservices.product.Dto.ResponseDto;
+import com.majjid.microservices.product.Dto.SearchPageDto;
+import com.majjid.microservices.product.config.ETags;
 import com.majjid.microservices.product.service.ProductService.IProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -24,16 +34,49 @@ public class ProductController {
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResponseDto<ProductBulkResultDto>> bulkUpsertProducts(InputStream products) {
+        ResponseDto<ProductBulkResultDto> response = productService.bulkUpsertProducts(products);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
     @GetMapping
-    public ResponseEntity<ResponseDto<List<ProductResponseDto>>> getProducts() {
-        ResponseDto<List<ProductResponseDto>> response = productService.getProducts();
+    public ResponseEntity<ResponseDto<CursorPageDto<ProductResponseDto, String>>> getProducts(
+            @RequestParam(required = false) String afterId,
+            @RequestParam(required = false) Integer size) {
+        ResponseDto<CursorPageDto<ProductResponseDto, String>> response = productService.getProducts(afterId, size);
+        // a matching If-None-Match gets a 304 without the body being serialized
+        return ResponseEntity.status(response.getStatus()).eTag(ETags.of(response.getData())).body(response);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ResponseDto<List<ProductResponseDto>>> getProductsByIds(@RequestParam List<String> ids) {
+        ResponseDto<List<ProductResponseDto>> response = productService.getProductsByIds(ids);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ResponseDto<SearchPageDto<ProductSearchHitDto>>> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        ResponseDto<SearchPageDto<ProductSearchHitDto>> response = productService.searchProducts(q, minPrice, maxPrice, page, size);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = productService::streamProducts;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{productId}")
     public ResponseEntity<ResponseDto<ProductResponseDto>> getProduct(@PathVariable String productId) {
         ResponseDto<ProductResponseDto> response = productService.getProduct(productId);
-        return ResponseEntity.status(response.getStatus()).body(response);
+        // served from the cache, a matching If-None-Match gets a 304 without the body being serialized
+        return ResponseEntity.status(response.getStatus()).eTag(ETags.of(response.getData())).body(response);
     }
 
     @DeleteMapping("/{productId}")
@@ -49,4 +92,12 @@ public class ProductController {
         ResponseDto<ProductResponseDto> response = productService.updateProduct(productId, productRequestDto);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
+
+    @PatchMapping("/{productId}")
+    public ResponseEntity<ResponseDto<ProductResponseDto>> patchProduct(
+            @PathVariable String productId,
+            @Valid @RequestBody ProductPatchRequestDto productPatchRequestDto) {
+        ResponseDto<ProductResponseDto> response = productService.patchProduct(productId, productPatchRequestDto);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
 }
\ No newline at end of file
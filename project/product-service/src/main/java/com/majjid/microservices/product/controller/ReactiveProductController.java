@@ -0,0 +1,42 @@
+package com.majjid.microservices.product.controller;
+
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ResponseDto;
+import com.majjid.microservices.product.service.ProductService.IReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read endpoints, same payloads as {@link ProductController}.
+ */
+@RestController
+@RequestMapping("/reactive/products")
+@RequiredArgsConstructor
+public class ReactiveProductController {
+
+    private final IReactiveProductService productService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ResponseDto<CursorPageDto<ProductResponseDto, String>>>> getProducts(
+            @RequestParam(required = false) String afterId,
+            @RequestParam(required = false) Integer size) {
+        return productService.getProducts(afterId, size)
+                .map(response -> ResponseEntity.status(response.getStatus()).body(response));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductResponseDto> streamProducts() {
+        return productService.streamProducts();
+    }
+
+    @GetMapping("/{productId}")
+    public Mono<ResponseEntity<ResponseDto<ProductResponseDto>>> getProduct(@PathVariable String productId) {
+        return productService.getProduct(productId)
+                .map(response -> ResponseEntity.status(response.getStatus()).body(response));
+    }
+}
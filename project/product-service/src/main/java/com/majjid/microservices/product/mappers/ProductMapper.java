@@ -3,8 +3,10 @@ package com.majjid.microservices.product.mappers;
 
 import com.majjid.microservices.product.Dto.ProductRequestDto;
 import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ProductSearchHitDto;
 import com.majjid.microservices.product.model.Product;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 
 @Mapper(componentModel = "spring")
@@ -12,5 +14,8 @@ public interface ProductMapper {
 
     ProductResponseDto toDto(Product product);
 
+    ProductSearchHitDto toSearchHitDto(Product product);
+
+    @Mapping(target = "score", ignore = true)
     Product toObject(ProductRequestDto productRequestDto);
 }
@@ -6,7 +6,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.math.BigDecimal;
 
@@ -18,8 +23,17 @@ import java.math.BigDecimal;
 public class Product {
     @Id
   private String id;
+  @TextIndexed(weight = 3)
   private String name;
+  @TextIndexed
   private String description;
+  // stored as a number (not the default string) so price ranges compare numerically
+  @Indexed
+  @Field(targetType = FieldType.DECIMAL128)
   private BigDecimal price;
 
+  // relevance of the document for a text search, read only, never persisted
+  @TextScore
+  private Float score;
+
 }
@@ -0,0 +1,16 @@
+package com.majjid.microservices.product.repository;
+
+import com.majjid.microservices.product.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking twin of {@link ProductRepository} over the same collection.
+ */
+@Repository
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+
+    Flux<Product> findByIdGreaterThan(String afterId, Sort sort);
+}
@@ -1,20 +1,41 @@
 package com.majjid.microservices.product.service.ProductService;
 
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductBulkResultDto;
+import com.majjid.microservices.product.Dto.ProductPatchRequestDto;
 import com.majjid.microservices.product.Dto.ProductRequestDto;
 import com.majjid.microservices.product.Dto.ProductResponseDto;
 import com.majjid.microservices.product.Dto.ResponseDto;
+import com.majjid.microservices.product.Dto.SearchPageDto;
+import com.majjid.microservices.product.Dto.ProductSearchHitDto;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface IProductService {
 
     ResponseDto<ProductResponseDto> createProduct(ProductRequestDto productRequestDto);
 
-    ResponseDto<List<ProductResponseDto>> getProducts();
+    ResponseDto<ProductBulkResultDto> bulkUpsertProducts(InputStream products);
+
+    ResponseDto<CursorPageDto<ProductResponseDto, String>> getProducts(String afterId, Integer size);
+
+    ResponseDto<List<ProductResponseDto>> getProductsByIds(List<String> productIds);
+
+    void streamProducts(OutputStream outputStream);
+
+    ResponseDto<SearchPageDto<ProductSearchHitDto>> searchProducts(String text, BigDecimal minPrice, BigDecimal maxPrice, Integer page, Integer size);
 
     ResponseDto<Boolean> deleteProduct(String productId);
 
     ResponseDto<ProductResponseDto> getProduct(String productId);
 
     ResponseDto<ProductResponseDto> updateProduct(String productId, ProductRequestDto productRequestDto);
+
+    /**
+     * Sets the fields sent and returns the product after the update, in one round trip.
+     */
+    ResponseDto<ProductResponseDto> patchProduct(String productId, ProductPatchRequestDto productPatchRequestDto);
 }
\ No newline at end of file
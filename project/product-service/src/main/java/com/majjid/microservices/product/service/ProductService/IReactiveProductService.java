@@ -0,0 +1,16 @@
+package com.majjid.microservices.product.service.ProductService;
+
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface IReactiveProductService {
+
+    Mono<ResponseDto<ProductResponseDto>> getProduct(String productId);
+
+    Mono<ResponseDto<CursorPageDto<ProductResponseDto, String>>> getProducts(String afterId, Integer size);
+
+    Flux<ProductResponseDto> streamProducts();
+}
@@ -1,18 +1,54 @@
 package com.majjid.microservices.product.service.ProductService;
 
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductBulkItemDto;
+import com.majjid.microservices.product.Dto.ProductBulkResultDto;
+import com.majjid.microservices.product.Dto.ProductPatchRequestDto;
 import com.majjid.microservices.product.Dto.ProductRequestDto;
 import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ProductSearchHitDto;
 import com.majjid.microservices.product.Dto.ResponseDto;
+import com.majjid.microservices.product.Dto.SearchPageDto;
+import com.majjid.microservices.product.config.CacheConfig;
 import com.majjid.microservices.product.config.CustomAppException;
 import com.majjid.microservices.product.mappers.CustomMapper;
 import com.majjid.microservices.product.model.Product;
 import com.majjid.microservices.product.repository.ProductRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,8 +57,35 @@ public class ProductService implements IProductService {
 
     private final ProductRepository productRepository;
     private final CustomMapper mapper;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CacheManager cacheManager;
     private final String OBJECT_TYPE = "Product";
 
+    @Value("${products.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${products.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    // documents pulled from mongo per getMore while streaming
+    @Value("${products.stream.batch-size:500}")
+    private int streamBatchSize;
+
+    // documents written to the stream between two flushes
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
+    // products sent to mongo in one unordered bulkWrite
+    @Value("${products.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    private static final int BULK_MAX_REPORTED_ERRORS = 100;
+
+    // deepest search page served, every page before it is skipped on the server
+    @Value("${products.search.max-page:100}")
+    private int searchMaxPage;
+
     @Override
     public ResponseDto<ProductResponseDto> createProduct(ProductRequestDto productRequestDto) {
         log.info("Creating new product: {}", productRequestDto.name());
@@ -36,18 +99,218 @@ public class ProductService implements IProductService {
     }
 
     @Override
-    public ResponseDto<List<ProductResponseDto>> getProducts() {
-        log.info("Fetching all products");
+    public ResponseDto<ProductBulkResultDto> bulkUpsertProducts(InputStream products) {
+        // evicted whatever the outcome : the chunks written before a malformed product stay in mongo,
+        // and a product read while the import runs may have been cached with its old values
+        try {
+            return importProducts(products);
+        } finally {
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private ResponseDto<ProductBulkResultDto> importProducts(InputStream products) {
+        log.info("Bulk import of products started");
+        BulkImport bulkImport = new BulkImport();
+        List<ProductBulkItemDto> chunk = new ArrayList<>(bulkChunkSize);
+
+        // a root level array and NDJSON are both read one product at a time, never the whole payload
+        try (MappingIterator<ProductBulkItemDto> items = objectMapper.readerFor(ProductBulkItemDto.class).readValues(products)) {
+            while (items.hasNextValue()) {
+                ProductBulkItemDto item = items.nextValue();
+                long index = bulkImport.received++;
+                if (item == null) {
+                    bulkImport.reject(index, "Product is required.");
+                    continue;
+                }
+
+                Set<ConstraintViolation<ProductBulkItemDto>> violations = validator.validate(item);
+                if (!violations.isEmpty()) {
+                    bulkImport.reject(index, violations.iterator().next().getMessage());
+                    continue;
+                }
+
+                chunk.add(item);
+                if (chunk.size() == bulkChunkSize) {
+                    writeChunk(chunk, bulkImport);
+                    chunk.clear();
+                }
+            }
+        } catch (JacksonException e) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "Malformed product at position " + bulkImport.received + " : " + e.getOriginalMessage());
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, bulkImport);
+        }
+
+        log.info("Bulk import of {} products done in {} chunks", bulkImport.received, bulkImport.chunks);
+        return ResponseDto.success(bulkImport.toDto(), "The products imported with success");
+    }
+
+    private void writeChunk(List<ProductBulkItemDto> chunk, BulkImport bulkImport) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (ProductBulkItemDto item : chunk) {
+            if (item.id() == null || item.id().isBlank()) {
+                operations.insert(Product.builder()
+                        .name(item.name())
+                        .description(item.description())
+                        .price(item.price())
+                        .build());
+            } else {
+                operations.upsert(Query.query(Criteria.where("id").is(item.id())), new Update()
+                        .set("name", item.name())
+                        .set("description", item.description())
+                        .set("price", item.price()));
+            }
+        }
+
+        bulkImport.chunks++;
+        try {
+            bulkImport.add(operations.execute());
+        } catch (BulkOperationException e) {
+            // unordered : the rest of the chunk was still applied, only report the failed writes
+            bulkImport.add(e.getResult());
+            e.getErrors().forEach(error -> bulkImport.reject(-1, error.getMessage()));
+        }
+    }
+
+    private static final class BulkImport {
+        long received;
+        long inserted;
+        long upserted;
+        long matched;
+        long modified;
+        long rejected;
+        int chunks;
+        final List<String> errors = new ArrayList<>();
+
+        void add(BulkWriteResult result) {
+            inserted += result.getInsertedCount();
+            upserted += result.getUpserts().size();
+            matched += result.getMatchedCount();
+            modified += result.getModifiedCount();
+        }
+
+        void reject(long index, String message) {
+            rejected++;
+            if (errors.size() < BULK_MAX_REPORTED_ERRORS) {
+                errors.add(index < 0 ? message : "product " + index + " : " + message);
+            }
+        }
+
+        ProductBulkResultDto toDto() {
+            return new ProductBulkResultDto(received, inserted, upserted, matched, modified, rejected, chunks, List.copyOf(errors));
+        }
+    }
+
+    @Override
+    public ResponseDto<CursorPageDto<ProductResponseDto, String>> getProducts(String afterId, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        log.info("Fetching products after {} (page size {})", afterId, pageSize);
+
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id"));
+        if (afterId != null && !afterId.isBlank()) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        // fetch one extra document to know if there is a next page without a count
+        query.limit(pageSize + 1);
 
-        List<ProductResponseDto> products = productRepository.findAll()
+        List<Product> products = mongoTemplate.find(query, Product.class);
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = products.subList(0, pageSize);
+        }
+
+        List<ProductResponseDto> content = products.stream().map(mapper::toDto).toList();
+        String nextCursor = hasNext ? products.get(products.size() - 1).getId() : null;
+        return ResponseDto.listed(new CursorPageDto<>(content, nextCursor, hasNext, content.size()), "products");
+    }
+
+    @Override
+    public ResponseDto<SearchPageDto<ProductSearchHitDto>> searchProducts(String text, BigDecimal minPrice, BigDecimal maxPrice, Integer page, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        int pageNumber = page == null || page < 0 ? 0 : page;
+        if (pageNumber > searchMaxPage) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "The search page can not be greater than " + searchMaxPage + ", refine the search instead");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "minPrice can not be greater than maxPrice");
+        }
+        log.info("Searching products '{}' priced [{}, {}] (page {}, size {})", text, minPrice, maxPrice, pageNumber, pageSize);
+
+        Query query;
+        if (text != null && !text.isBlank()) {
+            // text index match ranked by relevance, the price range filters the matches
+            query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore();
+        } else {
+            // without search terms the price index serves both the range and the order
+            query = new Query().with(Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "id")));
+        }
+        if (minPrice != null || maxPrice != null) {
+            Criteria price = Criteria.where("price");
+            if (minPrice != null) {
+                price = price.gte(minPrice);
+            }
+            if (maxPrice != null) {
+                price = price.lte(maxPrice);
+            }
+            query.addCriteria(price);
+        }
+        // fetch one extra document to know if there is a next page without a count
+        query.skip((long) pageNumber * pageSize).limit(pageSize + 1);
+
+        List<Product> products = mongoTemplate.find(query, Product.class);
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = products.subList(0, pageSize);
+        }
+
+        List<ProductSearchHitDto> content = products.stream().map(mapper::toSearchHitDto).toList();
+        return ResponseDto.listed(new SearchPageDto<>(content, pageNumber, content.size(), hasNext), "products");
+    }
+
+    @Override
+    public ResponseDto<List<ProductResponseDto>> getProductsByIds(List<String> productIds) {
+        List<String> distinctIds = productIds.stream().filter(id -> !id.isBlank()).distinct().toList();
+        if (distinctIds.size() > maxPageSize) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "Can not fetch more than " + maxPageSize + " products at once");
+        }
+        log.info("Fetching {} products by id", distinctIds.size());
+
+        // ids that do not exist are simply absent from the result
+        List<ProductResponseDto> products = productRepository.findAllById(distinctIds)
                 .stream()
                 .map(mapper::toDto)
                 .toList();
-
         return ResponseDto.listed(products, "products");
     }
 
     @Override
+    public void streamProducts(OutputStream outputStream) {
+        log.info("Streaming all products");
+
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(streamBatchSize);
+        try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+            int written = 0;
+            for (Product product : (Iterable<Product>) products::iterator) {
+                outputStream.write(objectMapper.writeValueAsBytes(mapper.toDto(product)));
+                outputStream.write('\n');
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+            log.info("Streamed {} products", written);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream the products", e);
+        }
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
     public ResponseDto<Boolean> deleteProduct(String productId) {
         log.info("Deleting product with ID: {}", productId);
 
@@ -61,22 +324,25 @@ public class ProductService implements IProductService {
     }
 
     @Override
+    // sync : concurrent misses on the same hot id load it from mongo once
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId", sync = true)
     public ResponseDto<ProductResponseDto> getProduct(String productId) {
         log.info("Fetching product with ID: {}", productId);
 
         Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new CustomAppException(HttpStatus.NOT_FOUND, "The Product with id = " + productId + " is Not Found"));
+                .orElseThrow(() -> new CustomAppException(HttpStatus.NOT_FOUND, buildNotFoundMsg(productId)));
 
         ProductResponseDto responseDto = mapper.toDto(product);
         return ResponseDto.retrieved(responseDto, "product");
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
     public ResponseDto<ProductResponseDto> updateProduct(String productId, ProductRequestDto productRequestDto) {
         log.info("Updating product with ID: {}", productId);
 
         Product existingProduct = productRepository.findById(productId)
-                .orElseThrow(() -> new CustomAppException(HttpStatus.NOT_FOUND, "The Product with id = " + productId + " is Not Found"));
+                .orElseThrow(() -> new CustomAppException(HttpStatus.NOT_FOUND, buildNotFoundMsg(productId)));
 
         // Update the existing product with new data
         Product updatedProduct = mapper.toObject(productRequestDto);
@@ -88,4 +354,41 @@ public class ProductService implements IProductService {
         ProductResponseDto responseDto = mapper.toDto(updatedProduct);
         return ResponseDto.updated(responseDto, "product");
     }
-}
\ No newline at end of file
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
+    public ResponseDto<ProductResponseDto> patchProduct(String productId, ProductPatchRequestDto productPatchRequestDto) {
+        log.info("Patching product with ID: {}", productId);
+
+        Update update = new Update();
+        if (productPatchRequestDto.name() != null) {
+            update.set("name", productPatchRequestDto.name());
+        }
+        if (productPatchRequestDto.description() != null) {
+            update.set("description", productPatchRequestDto.description());
+        }
+        if (productPatchRequestDto.price() != null) {
+            update.set("price", productPatchRequestDto.price());
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            throw new CustomAppException(HttpStatus.BAD_REQUEST, "Nothing to update, send at least one of name, description and price");
+        }
+
+        // one round trip : $set of the sent fields only, mongo answers with the document after the update (null when missing)
+        Product product = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(productId)), update,
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (product == null) {
+            throw new CustomAppException(HttpStatus.NOT_FOUND, buildNotFoundMsg(productId));
+        }
+        log.info("Product {} patched successfully", productId);
+
+        return ResponseDto.updated(mapper.toDto(product), "product");
+    }
+
+    /**
+     * 404 message of a product lookup, shared with {@link ReactiveProductService} so both paths answer the same body.
+     */
+    static String buildNotFoundMsg(String productId) {
+        return "The Product with id = " + productId + " is Not Found";
+    }
+}
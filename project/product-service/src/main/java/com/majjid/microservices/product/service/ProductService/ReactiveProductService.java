@@ -0,0 +1,77 @@
+package com.majjid.microservices.product.service.ProductService;
+
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ResponseDto;
+import com.majjid.microservices.product.config.CustomAppException;
+import com.majjid.microservices.product.mappers.CustomMapper;
+import com.majjid.microservices.product.model.Product;
+import com.majjid.microservices.product.repository.ReactiveProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Read path of {@link ProductService} on the reactive Mongo driver : no thread waits on Mongo,
+ * and listings are pulled from the cursor only as fast as the client consumes them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductService implements IReactiveProductService {
+
+    private static final Sort BY_ID = Sort.by(Sort.Direction.ASC, "id");
+
+    private final ReactiveProductRepository productRepository;
+    private final CustomMapper mapper;
+
+    @Value("${products.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${products.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${products.stream.batch-size:500}")
+    private int streamBatchSize;
+
+    @Override
+    public Mono<ResponseDto<ProductResponseDto>> getProduct(String productId) {
+        return productRepository.findById(productId)
+                .switchIfEmpty(Mono.error(() -> new CustomAppException(HttpStatus.NOT_FOUND, ProductService.buildNotFoundMsg(productId))))
+                .map(product -> ResponseDto.retrieved(mapper.toDto(product), "product"));
+    }
+
+    @Override
+    public Mono<ResponseDto<CursorPageDto<ProductResponseDto, String>>> getProducts(String afterId, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        Flux<Product> products = afterId == null || afterId.isBlank()
+                ? productRepository.findAll(BY_ID)
+                : productRepository.findByIdGreaterThan(afterId, BY_ID);
+
+        // one extra document tells if there is a next page, take() cancels the cursor right after it
+        return products.take(pageSize + 1L)
+                .collectList()
+                .map(page -> {
+                    boolean hasNext = page.size() > pageSize;
+                    List<Product> content = hasNext ? page.subList(0, pageSize) : page;
+                    String nextCursor = hasNext ? content.get(content.size() - 1).getId() : null;
+                    return ResponseDto.listed(new CursorPageDto<>(content.stream().map(mapper::toDto).toList(), nextCursor, hasNext, content.size()), "products");
+                });
+    }
+
+    @Override
+    public Flux<ProductResponseDto> streamProducts() {
+        log.info("Streaming all products (reactive)");
+        // limitRate bounds how many documents are requested from the cursor ahead of the client
+        return productRepository.findAll(BY_ID)
+                .limitRate(streamBatchSize)
+                .map(mapper::toDto);
+    }
+}
@@ -0,0 +1,110 @@
+package com.majjid.microservices.product;
+
+import com.majjid.microservices.loadtest.LoadDriver;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the same product reads with and without If-None-Match, as a CDN revalidating its copies does,
+ * and reports throughput, latency, body bytes received and process CPU time per request.
+ * Client and server share the JVM, so the CPU figure includes the client side of both runs.
+ * Run with {@code ./mvnw test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetReplayBenchmark {
+
+    private static final int PRODUCTS = 200;
+    private static final int CONCURRENCY = 64;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.ofSeconds(20);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder().executor(Runnable::run).build();
+
+    @LocalServerPort
+    private int port;
+
+    private record Replay(LoadDriver.Result result, long bodyBytes, long cpuNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%s%n%-40s %10.1f body bytes/req  %8.1f us cpu/req",
+                    result, "", (double) bodyBytes / result.requests(), cpuNanos / 1e3 / result.requests());
+        }
+    }
+
+    @Test
+    void replayProductReads() throws Exception {
+        List<String> ids = new ArrayList<>(PRODUCTS);
+        List<String> eTags = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            String id = RestAssured.given()
+                    .port(port)
+                    .contentType(ContentType.JSON)
+                    .body("""
+                        { "name": "replay %d", "price": 10, "description": "%s" }
+                        """.formatted(i, "a product description of a realistic length ".repeat(8)))
+                    .post("/products")
+                    .then()
+                    .statusCode(201)
+                    .extract().path("data.id");
+            ids.add(id);
+            eTags.add(RestAssured.given().port(port).get("/products/" + id).then().statusCode(200).extract().header("ETag"));
+        }
+
+        Replay full = replay("GET /products/{id} (full body)", ids, null);
+        Replay conditional = replay("GET /products/{id} (If-None-Match)", ids, eTags);
+        System.out.println(full);
+        System.out.println(conditional);
+
+        assertThat(conditional.bodyBytes()).isZero();
+        assertThat(full.result().errors()).isZero();
+        assertThat(conditional.result().errors()).isZero();
+    }
+
+    private Replay replay(String name, List<String> ids, List<String> eTags) throws Exception {
+        LongAdder bodyBytes = new LongAdder();
+        Callable<Integer> request = () -> {
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products/" + ids.get(index))).GET();
+            if (eTags != null) {
+                builder.header("If-None-Match", eTags.get(index));
+            }
+            HttpResponse<byte[]> response = CLIENT.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            bodyBytes.add(response.body().length);
+            // a revalidated copy is a success
+            return response.statusCode() == 304 ? 200 : response.statusCode();
+        };
+
+        // warm up separately so the byte and cpu counters only cover the measured run
+        LoadDriver.run(name, CONCURRENCY, Duration.ZERO, WARMUP, request);
+        bodyBytes.reset();
+        long cpuStart = processCpuNanos();
+        LoadDriver.Result result = LoadDriver.run(name, CONCURRENCY, Duration.ZERO, DURATION, request);
+        return new Replay(result, bodyBytes.sum(), processCpuNanos() - cpuStart);
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+}
@@ -1,15 +1,30 @@
 package com.majjid.microservices.product;
 
+import com.majjid.microservices.product.config.MongoIndexConfig;
 import io.restassured.http.ContentType;
+import org.bson.Document;
+import org.bson.types.Decimal128;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.testcontainers.mongodb.MongoDBContainer;
 import io.restassured.RestAssured;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @Import(TestcontainersConfiguration.class)
@@ -22,6 +37,12 @@ class ProductServiceApplicationTests {
     @LocalServerPort
     private int port;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
     @BeforeEach
     void setup() {
         RestAssured.baseURI = "http://localhost";
@@ -57,4 +78,396 @@ class ProductServiceApplicationTests {
                 .body("message", containsString("created with success"))
                 .body("success", equalTo(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldPaginateProductsWithACursor() {
+        for (int i = 0; i < 3; i++) {
+            RestAssured.given()
+                    .contentType(ContentType.JSON)
+                    .body("""
+                            {
+                              "name": "paged",
+                              "price": 5,
+                              "description": "paged"
+                            }
+                            """)
+                    .post("/products")
+                    .then()
+                    .statusCode(201);
+        }
+
+        String nextCursor = RestAssured.given()
+                .queryParam("size", 2)
+                .when()
+                .get("/products")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content.size()", equalTo(2))
+                .body("data.hasNext", equalTo(true))
+                .body("data.nextCursor", notNullValue())
+                .extract().path("data.nextCursor");
+
+        RestAssured.given()
+                .queryParam("afterId", nextCursor)
+                .queryParam("size", 2)
+                .when()
+                .get("/products")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content.id", not(hasItem(nextCursor)));
+    }
+
+    @Test
+    void shouldStreamProductsAsNdjson() {
+        RestAssured.given()
+                .when()
+                .get("/products/stream")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .contentType("application/x-ndjson");
+    }
+
+    @Test
+    void shouldBulkImportProductsFromNdjson() {
+        String requestBody = """
+            {"id": "bulk-1", "name": "first", "price": 10, "description": "first"}
+            {"name": "second", "price": 20, "description": "second"}
+            {"name": "", "price": 20, "description": "invalid"}
+            {"id": "bulk-1", "name": "first updated", "price": 11, "description": "first"}
+            """;
+
+        RestAssured.given()
+                .contentType("application/x-ndjson")
+                .body(requestBody)
+                .when()
+                .post("/products/bulk")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.received", equalTo(4))
+                .body("data.inserted", equalTo(1))
+                .body("data.rejected", equalTo(1))
+                .body("success", equalTo(true));
+
+        RestAssured.given()
+                .when()
+                .get("/products/bulk-1")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.name", equalTo("first updated"));
+    }
+
+    @Test
+    void shouldServeCachedProductAndEvictItOnUpdate() {
+        String id = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "name": "cached", "price": 10, "description": "cached" }
+                    """)
+                .post("/products")
+                .then()
+                .statusCode(201)
+                .extract().path("data.id");
+
+        RestAssured.get("/products/" + id).then().statusCode(200).body("data.name", equalTo("cached"));
+        RestAssured.get("/products/" + id).then().statusCode(200).body("data.name", equalTo("cached"));
+
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "name": "renamed", "price": 12, "description": "cached" }
+                    """)
+                .put("/products/" + id)
+                .then()
+                .statusCode(200);
+
+        RestAssured.get("/products/" + id).then().statusCode(200).body("data.name", equalTo("renamed"));
+
+        RestAssured.given()
+                .queryParam("tag", "cache:products")
+                .queryParam("tag", "result:hit")
+                .get("/actuator/metrics/cache.gets")
+                .then()
+                .statusCode(200)
+                .body("measurements[0].value", greaterThanOrEqualTo(1.0f));
+    }
+
+    @Test
+    void shouldPatchOnlyTheFieldsSent() {
+        String id = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "name": "patched", "price": 10, "description": "kept" }
+                    """)
+                .post("/products")
+                .then()
+                .statusCode(201)
+                .extract().path("data.id");
+        RestAssured.get("/products/" + id).then().statusCode(200).body("data.price", equalTo(10));
+
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "price": 15.5 }
+                    """)
+                .patch("/products/" + id)
+                .then()
+                .statusCode(200)
+                .body("data.name", equalTo("patched"))
+                .body("data.description", equalTo("kept"))
+                .body("data.price", equalTo(15.5f));
+
+        // the cached product was evicted
+        RestAssured.get("/products/" + id).then().statusCode(200).body("data.price", equalTo(15.5f));
+
+        RestAssured.given().contentType(ContentType.JSON).body("{ \"price\": 1 }").patch("/products/000000000000000000000000")
+                .then().statusCode(404);
+        RestAssured.given().contentType(ContentType.JSON).body("{}").patch("/products/" + id)
+                .then().statusCode(400);
+        RestAssured.given().contentType(ContentType.JSON).body("{ \"name\": \" \" }").patch("/products/" + id)
+                .then().statusCode(400);
+    }
+
+    @Test
+    void shouldReadProductsThroughTheReactivePath() {
+        String id = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "name": "reactive", "price": 10, "description": "reactive" }
+                    """)
+                .post("/products")
+                .then()
+                .statusCode(201)
+                .extract().path("data.id");
+
+        RestAssured.get("/reactive/products/" + id)
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.id", equalTo(id))
+                .body("data.name", equalTo("reactive"))
+                .body("message", containsString("retrieved with success"));
+
+        String blockingNotFound = RestAssured.get("/products/does-not-exist")
+                .then().statusCode(404).extract().asString();
+        String reactiveNotFound = RestAssured.get("/reactive/products/does-not-exist")
+                .then()
+                .assertThat()
+                .statusCode(404)
+                .body("success", equalTo(false))
+                .extract().asString();
+        assertThat(reactiveNotFound).as("both read paths should answer a miss with the same body").isEqualTo(blockingNotFound);
+
+        RestAssured.given()
+                .accept("application/x-ndjson")
+                .get("/reactive/products")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body(containsString(id));
+    }
+
+    @Test
+    void shouldFetchSeveralProductsByIdInOneRequest() {
+        String first = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "name": "first", "price": 10, "description": "batch" }
+                    """)
+                .post("/products")
+                .then().statusCode(201)
+                .extract().path("data.id");
+        String second = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "name": "second", "price": 20, "description": "batch" }
+                    """)
+                .post("/products")
+                .then().statusCode(201)
+                .extract().path("data.id");
+
+        RestAssured.given()
+                .queryParam("ids", first + "," + second + ",missing-id")
+                .get("/products")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.size()", equalTo(2))
+                .body("data.id", hasItems(first, second));
+    }
+
+    @Test
+    void shouldSearchProductsByRelevanceWithinAPriceRange() {
+        String requestBody = """
+            {"id": "search-1", "name": "Trail running shoes", "price": 120, "description": "Light shoes for rocky trails"}
+            {"id": "search-2", "name": "Running socks", "price": 15, "description": "Socks for running shoes"}
+            {"id": "search-3", "name": "Hiking boots", "price": 180, "description": "Boots for long trails"}
+            """;
+        RestAssured.given().contentType("application/x-ndjson").body(requestBody).post("/products/bulk").then().statusCode(200);
+
+        // the name carries more weight than the description
+        RestAssured.given()
+                .queryParam("q", "running")
+                .when()
+                .get("/products/search")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content.id", hasItems("search-1", "search-2"))
+                .body("data.content.id", not(hasItem("search-3")))
+                .body("data.content[0].score", notNullValue());
+
+        RestAssured.given()
+                .queryParam("q", "shoes")
+                .queryParam("minPrice", 100)
+                .when()
+                .get("/products/search")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content.id", contains("search-1"));
+
+        RestAssured.given()
+                .queryParam("minPrice", 150)
+                .queryParam("maxPrice", 200)
+                .when()
+                .get("/products/search")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content.id", hasItem("search-3"))
+                .body("data.content.id", not(hasItems("search-1", "search-2")))
+                .body("data.page", equalTo(0));
+
+        RestAssured.given()
+                .queryParam("minPrice", 200)
+                .queryParam("maxPrice", 100)
+                .when()
+                .get("/products/search")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void legacyStringPricesShouldBeConvertedForPriceRanges() {
+        // written the way prices were stored before DECIMAL128 : as strings, out of reach of the range filters
+        mongoTemplate.getCollection("product").insertOne(new Document("_id", "legacy-price")
+                .append("name", "Legacy lantern").append("description", "legacy").append("price", "1500.50"));
+
+        assertThat(mongoIndexConfig.migrateStringPrices()).isGreaterThanOrEqualTo(1);
+        assertThat(mongoTemplate.getCollection("product").find(new Document("_id", "legacy-price")).first().get("price"))
+                .isInstanceOf(Decimal128.class);
+        // idempotent : a second run finds nothing left to convert
+        assertThat(mongoIndexConfig.migrateStringPrices()).isZero();
+
+        RestAssured.given()
+                .queryParam("minPrice", 1500)
+                .queryParam("maxPrice", 1501)
+                .when()
+                .get("/products/search")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("data.content.id", contains("legacy-price"));
+    }
+
+    @Test
+    void shouldAnswerConditionalGetsWithNotModified() {
+        String id = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        { "name": "etag", "description": "etag", "price": 5 }
+                        """)
+                .post("/products")
+                .then()
+                .statusCode(201)
+                .extract().path("data.id");
+
+        String eTag = RestAssured.get("/products/" + id).then().statusCode(200).extract().header("ETag");
+        RestAssured.given().header("If-None-Match", eTag).get("/products/" + id)
+                .then()
+                .statusCode(304)
+                .header("ETag", eTag)
+                .body(emptyString());
+
+        RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        { "name": "etag", "description": "etag changed", "price": 5 }
+                        """)
+                .put("/products/" + id)
+                .then()
+                .statusCode(200);
+        RestAssured.given().header("If-None-Match", eTag).get("/products/" + id)
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(eTag)));
+
+        String pageETag = RestAssured.get("/products?size=5").then().statusCode(200).extract().header("ETag");
+        RestAssured.given().header("If-None-Match", pageETag).get("/products?size=5").then().statusCode(304);
+    }
+
+    @Test
+    void shouldCompressLargeListingsAndAnswerCborWhenAsked() throws Exception {
+        StringBuilder requestBody = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            requestBody.append("""
+                {"id": "compression-%02d", "name": "compressed %d", "price": 12.5, "description": "a listing worth compressing"}
+                """.formatted(i, i));
+        }
+        RestAssured.given().contentType("application/x-ndjson").body(requestBody.toString()).post("/products/bulk").then().statusCode(200);
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI listing = URI.create("http://localhost:" + port + "/products?afterId=compression-&size=50");
+
+        // the weak ETag of a page lets Tomcat compress it
+        HttpResponse<byte[]> gzipped = client.send(HttpRequest.newBuilder(listing).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(gzipped.statusCode()).isEqualTo(200);
+        assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(gzipped.headers().firstValue("ETag")).hasValueSatisfying(eTag -> assertThat(eTag).startsWith("W/"));
+        byte[] json;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            json = gzip.readAllBytes();
+        }
+        assertThat(gzipped.body().length * 4).isLessThan(json.length);
+
+        HttpResponse<byte[]> cbor = client.send(HttpRequest.newBuilder(listing).header("Accept", "application/cbor").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(cbor.statusCode()).isEqualTo(200);
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(cbor.body().length).isLessThan(json.length);
+        JsonNode page = CBORMapper.builder().build().readTree(cbor.body());
+        assertThat(page.get("data").get("content").size()).isEqualTo(50);
+        assertThat(page.get("data").get("content").get(0).get("id").asString()).isEqualTo("compression-00");
+        assertThat(page.get("data").get("content").get(0).get("price").decimalValue()).isEqualByComparingTo("12.5");
+    }
+
+    @Test
+    void shouldExposeHotPathMetricsInPrometheusFormat() {
+        String id = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        { "name": "metrics", "description": "metrics", "price": 5 }
+                        """)
+                .post("/products")
+                .then()
+                .statusCode(201)
+                .extract().path("data.id");
+        RestAssured.get("/products/" + id).then().statusCode(200);
+
+        RestAssured.get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .body(containsString("products_service_seconds_count{class=\"ProductService\",method=\"getProduct\",outcome=\"success\""))
+                .body(containsString("products_service_seconds_bucket{"))
+                .body(containsString("products_mapper_seconds_count{"))
+                .body(containsString("spring_data_repository_invocations_seconds_count{"))
+                .body(containsString("mongodb_driver_pool_size{"))
+                .body(containsString("mongodb_driver_commands_seconds_count{"));
+    }
+}
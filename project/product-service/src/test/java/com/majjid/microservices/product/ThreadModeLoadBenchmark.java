@@ -0,0 +1,84 @@
+package com.majjid.microservices.product;
+
+import com.majjid.microservices.loadtest.LoadDriver;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and tail latency of GET /products/{id} on platform vs virtual request threads.
+ * The product cache is disabled so every request does its Mongo round trip.
+ * Each mode gets its own application context and Mongo container.
+ * Run with {@code ./mvnw test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+class ThreadModeLoadBenchmark {
+
+    private static final int CONCURRENCY = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration DURATION = Duration.ofSeconds(30);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder().executor(Runnable::run).build();
+
+    static LoadDriver.Result getProduct(String name, int port) throws Exception {
+        String id = RestAssured.given()
+                .port(port)
+                .contentType(ContentType.JSON)
+                .body("""
+                    { "name": "load", "price": 10, "description": "load" }
+                    """)
+                .post("/products")
+                .then()
+                .statusCode(201)
+                .extract().path("data.id");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products/" + id)).GET().build();
+        LoadDriver.Result result = LoadDriver.run(name, CONCURRENCY, WARMUP, DURATION,
+                () -> CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        System.out.println(result);
+        return result;
+    }
+
+    @Nested
+    @Import(TestcontainersConfiguration.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {"spring.threads.virtual.enabled=false", "spring.cache.type=none"})
+    class PlatformThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void getProduct() throws Exception {
+            assertThat(ThreadModeLoadBenchmark.getProduct("GET /products/{id} (platform threads)", port).requests()).isPositive();
+        }
+    }
+
+    @Nested
+    @Import(TestcontainersConfiguration.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {"spring.threads.virtual.enabled=true", "spring.cache.type=none"})
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void getProduct() throws Exception {
+            assertThat(ThreadModeLoadBenchmark.getProduct("GET /products/{id} (virtual threads)", port).requests()).isPositive();
+        }
+    }
+}
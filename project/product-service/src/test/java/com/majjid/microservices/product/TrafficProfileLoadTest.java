@@ -0,0 +1,67 @@
+package com.majjid.microservices.product;
+
+import com.majjid.microservices.loadtest.ProfileReplay;
+import com.majjid.microservices.loadtest.TrafficProfile;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the {@link TrafficProfile traffic profiles} of the product service against a MongoDB container
+ * and fails the build when a run breaks its budget. Every run is appended to {@code target/load-results.ndjson}.
+ * <p>
+ * Run with {@code ./mvnw test -Pload-tests}, the {@link ProfileReplay loadtest options} pick the profiles
+ * ({@code -Dloadtest.profiles=read-heavy-catalog}), their duration and a looser budget on a slower machine.
+ */
+@Tag("loadtest")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TrafficProfileLoadTest {
+
+    private static final int PRODUCTS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    static Stream<String> profiles() {
+        return ProfileReplay.profiles("read-heavy-catalog,bulk-import");
+    }
+
+    @ParameterizedTest
+    @MethodSource("profiles")
+    void replay(String profileName) throws Exception {
+        List<String> breaches = ProfileReplay.replay(profileName, "http://localhost:" + port, seed());
+
+        assertThat(breaches).as("%s is over its budget", profileName).isEmpty();
+    }
+
+    /**
+     * A catalog of products to read, found by the searches of the profiles.
+     */
+    private Map<String, List<String>> seed() {
+        List<String> productIds = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            String productId = RestAssured.given().port(port).contentType(ContentType.JSON)
+                    .body("""
+                            { "name": "widget %d", "price": %d, "description": "%s" }
+                            """.formatted(i, 1 + i % 1000, "a product description of a realistic length ".repeat(8)))
+                    .post("/products")
+                    .then().statusCode(201)
+                    .extract().path("data.id");
+            productIds.add(productId);
+        }
+        return Map.of("productId", productIds);
+    }
+}
@@ -0,0 +1,96 @@
+package com.majjid.microservices.product.benchmark;
+
+import com.majjid.microservices.product.Dto.CursorPageDto;
+import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ResponseDto;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A 10k products listing in each representation GET /products can answer with : JSON or CBOR (Accept),
+ * sent as is or gzip compressed (Accept-Encoding). {@code write} is the service side, {@code read} the consumer side.
+ * The body sizes are printed once per combination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingEncodingBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ObjectMapper objectMapper;
+    private ResponseDto<CursorPageDto<ProductResponseDto, String>> listing;
+    private byte[] body;
+
+    /**
+     * The envelope as a consumer reads it.
+     */
+    public record Listing(CursorPageDto<ProductResponseDto, String> data, String message, String status, boolean success) {
+    }
+
+    @Setup
+    public void setup() {
+        objectMapper = "cbor".equals(format) ? CBORMapper.builder().build() : JsonMapper.builder().build();
+        List<ProductResponseDto> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(new ProductResponseDto(String.format("%024x", i), "Product " + i,
+                    "A realistic catalog description for the product number " + i + ", a few dozen characters long.",
+                    new BigDecimal("49.90").add(BigDecimal.valueOf(i, 2))));
+        }
+        listing = ResponseDto.listed(new CursorPageDto<>(products, products.getLast().id(), true, size), "products");
+        body = write();
+        System.out.printf("%n%s + %s : %d bytes for %d products%n", format, encoding, body.length, size);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        byte[] encoded = objectMapper.writeValueAsBytes(listing);
+        return "gzip".equals(encoding) ? gzip(encoded) : encoded;
+    }
+
+    @Benchmark
+    public Listing read() {
+        return objectMapper.readValue("gzip".equals(encoding) ? gunzip(body) : body, Listing.class);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.majjid.microservices.product.benchmark;
+
+import com.majjid.microservices.product.Dto.ProductResponseDto;
+import com.majjid.microservices.product.Dto.ResponseDto;
+import com.majjid.microservices.product.mappers.CustomMapper;
+import com.majjid.microservices.product.mappers.CustomMapperImpl;
+import com.majjid.microservices.product.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the pieces every product response goes through : MapStruct mapping,
+ * the ResponseDto envelope and Jackson serialization (BigDecimal prices included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductHotPathBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final CustomMapper mapper = new CustomMapperImpl();
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private List<Product> products;
+    private List<ProductResponseDto> dtos;
+    private ResponseDto<List<ProductResponseDto>> listed;
+
+    @Setup
+    public void setup() {
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(Product.builder()
+                    .id(String.format("%024x", i))
+                    .name("Product " + i)
+                    .description("A realistic catalog description for the product number " + i + ", a few dozen characters long.")
+                    .price(new BigDecimal("49.90").add(BigDecimal.valueOf(i, 2)))
+                    .build());
+        }
+        dtos = products.stream().map(mapper::toDto).toList();
+        listed = ResponseDto.listed(dtos, "products");
+    }
+
+    @Benchmark
+    public void mapToDto(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(mapper.toDto(product));
+        }
+    }
+
+    @Benchmark
+    public ResponseDto<List<ProductResponseDto>> buildListedEnvelope() {
+        return ResponseDto.listed(dtos, "products");
+    }
+
+    @Benchmark
+    public void buildRetrievedEnvelopes(Blackhole blackhole) {
+        for (ProductResponseDto dto : dtos) {
+            blackhole.consume(ResponseDto.retrieved(dto, "product"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeListing() {
+        return objectMapper.writeValueAsBytes(listed);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeListing() {
+        return objectMapper.writeValueAsBytes(ResponseDto.listed(products.stream().map(mapper::toDto).toList(), "products"));
+    }
+}
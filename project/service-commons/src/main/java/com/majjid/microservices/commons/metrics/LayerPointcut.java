@@ -0,0 +1,34 @@
+package com.majjid.microservices.commons.metrics;
+
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * The public methods of the beans implementing one of the layer interfaces.
+ */
+final class LayerPointcut extends StaticMethodMatcherPointcut {
+
+    private final List<Class<?>> layers;
+
+    LayerPointcut(Class<?>... layers) {
+        this.layers = List.of(layers);
+        setClassFilter(clazz -> this.layers.stream().anyMatch(layer -> layer.isAssignableFrom(clazz)));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return method.getDeclaringClass() != Object.class
+                && layers.stream().anyMatch(layer -> layer.isAssignableFrom(targetClass) && isDeclaredBy(layer, method));
+    }
+
+    private static boolean isDeclaredBy(Class<?> layer, Method method) {
+        try {
+            layer.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
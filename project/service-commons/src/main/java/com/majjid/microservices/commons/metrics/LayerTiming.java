@@ -0,0 +1,27 @@
+package com.majjid.microservices.commons.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+
+/**
+ * Timers of the layers of a service : every public method of the beans implementing one of the layer interfaces
+ * is timed into one metric, tagged by class, method and outcome.
+ */
+public final class LayerTiming {
+
+    private LayerTiming() {
+    }
+
+    /**
+     * @return an advisor applied by the proxy that already carries the transactions or the caching, outermost
+     * so a timing includes them
+     */
+    public static Advisor advisor(String metricName, ObjectProvider<MeterRegistry> meterRegistryProvider, Class<?>... layers) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new LayerPointcut(layers), new LayerTimingInterceptor(metricName, meterRegistryProvider));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
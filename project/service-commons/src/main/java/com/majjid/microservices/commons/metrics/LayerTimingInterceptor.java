@@ -0,0 +1,63 @@
+package com.majjid.microservices.commons.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call of the intercepted beans into {@code <metricName>} tagged by class, method and outcome.
+ * The timers of a method are registered on its first call and then only looked up,
+ * so a call costs two {@link System#nanoTime()} and a map lookup, without allocating.
+ * Percentiles and histogram buckets come from the {@code management.metrics.distribution.*} properties.
+ */
+final class LayerTimingInterceptor implements MethodInterceptor {
+
+    private final String metricName;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final ConcurrentHashMap<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    LayerTimingInterceptor(String metricName, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.metricName = metricName;
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Timer[] methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            Class<?> target = ClassUtils.getUserClass(invocation.getThis().getClass());
+            methodTimers = timers.computeIfAbsent(method, key -> register(target, key));
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodTimers[0].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers[1].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer[] register(Class<?> target, Method method) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getObject();
+        return new Timer[]{timer(meterRegistry, target, method, "success"), timer(meterRegistry, target, method, "error")};
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, Class<?> target, Method method, String outcome) {
+        return Timer.builder(metricName)
+                .tag("class", target.getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
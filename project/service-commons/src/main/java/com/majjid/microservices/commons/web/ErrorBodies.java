@@ -0,0 +1,48 @@
+package com.majjid.microservices.commons.web;
+
+import org.springframework.http.HttpStatus;
+import tools.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Error response bodies ({@code message}, {@code status}, {@code cause}, {@code success}) written from
+ * pre-serialized per-status templates : only the message is escaped and copied, no map and no serializer involved.
+ */
+public final class ErrorBodies {
+
+    private static final byte[] PREFIX = "{\"message\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL_MESSAGE_PREFIX = "{\"message\":null".getBytes(StandardCharsets.UTF_8);
+    // indexed by HttpStatus ordinal : the part after the message, from its closing quote on
+    private static final byte[][] SUFFIXES = new byte[HttpStatus.values().length][];
+    private static final byte[][] NULL_MESSAGE_SUFFIXES = new byte[HttpStatus.values().length][];
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            String fields = ",\"status\":" + status.value() + ",\"cause\":\"" + status.getReasonPhrase() + "\",\"success\":false}";
+            SUFFIXES[status.ordinal()] = ("\"" + fields).getBytes(StandardCharsets.UTF_8);
+            NULL_MESSAGE_SUFFIXES[status.ordinal()] = fields.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private ErrorBodies() {
+    }
+
+    public static byte[] of(HttpStatus status, String message) {
+        if (message == null) {
+            return concat(NULL_MESSAGE_PREFIX, null, NULL_MESSAGE_SUFFIXES[status.ordinal()]);
+        }
+        return concat(PREFIX, JsonStringEncoder.getInstance().quoteAsUTF8(message), SUFFIXES[status.ordinal()]);
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] message, byte[] suffix) {
+        int messageLength = message == null ? 0 : message.length;
+        byte[] body = new byte[prefix.length + messageLength + suffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        if (message != null) {
+            System.arraycopy(message, 0, body, prefix.length, messageLength);
+        }
+        System.arraycopy(suffix, 0, body, prefix.length + messageLength, suffix.length);
+        return body;
+    }
+}
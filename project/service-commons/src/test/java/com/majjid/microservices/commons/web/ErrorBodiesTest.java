@@ -0,0 +1,41 @@
+package com.majjid.microservices.commons.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorBodiesTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldWriteTheErrorFieldsOfTheStatus() {
+        JsonNode body = jsonMapper.readTree(ErrorBodies.of(HttpStatus.NOT_FOUND, "The order with id 7 does not exist"));
+
+        assertThat(body.get("message").asString()).isEqualTo("The order with id 7 does not exist");
+        assertThat(body.get("status").asInt()).isEqualTo(404);
+        assertThat(body.get("cause").asString()).isEqualTo("Not Found");
+        assertThat(body.get("success").asBoolean()).isFalse();
+    }
+
+    @Test
+    void shouldEscapeTheMessage() {
+        String message = "The product with id \"a\\b\"\n</script> does not exist";
+
+        JsonNode body = jsonMapper.readTree(ErrorBodies.of(HttpStatus.CONFLICT, message));
+
+        assertThat(body.get("message").asString()).isEqualTo(message);
+        assertThat(body.get("status").asInt()).isEqualTo(409);
+    }
+
+    @Test
+    void shouldWriteANullMessage() {
+        JsonNode body = jsonMapper.readTree(ErrorBodies.of(HttpStatus.BAD_REQUEST, null));
+
+        assertThat(body.get("message").isNull()).isTrue();
+        assertThat(body.get("status").asInt()).isEqualTo(400);
+    }
+}